@@ -30,11 +30,21 @@ public class RedisOptionsConverter {
             obj.setEndpoints(list);
           }
           break;
+        case "lazyMulti":
+          if (member.getValue() instanceof Boolean) {
+            obj.setLazyMulti((Boolean)member.getValue());
+          }
+          break;
         case "masterName":
           if (member.getValue() instanceof String) {
             obj.setMasterName((String)member.getValue());
           }
           break;
+        case "maxBufferedBytes":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxBufferedBytes(((Number)member.getValue()).longValue());
+          }
+          break;
         case "maxNestedArrays":
           if (member.getValue() instanceof Number) {
             obj.setMaxNestedArrays(((Number)member.getValue()).intValue());
@@ -70,11 +80,26 @@ public class RedisOptionsConverter {
             obj.setPoolRecycleTimeout(((Number)member.getValue()).intValue());
           }
           break;
+        case "preferredProtocolVersion":
+          if (member.getValue() instanceof String) {
+            obj.setPreferredProtocolVersion(io.vertx.redis.client.ProtocolVersion.valueOf((String)member.getValue()));
+          }
+          break;
+        case "requestTimeout":
+          if (member.getValue() instanceof Number) {
+            obj.setRequestTimeout(((Number)member.getValue()).longValue());
+          }
+          break;
         case "role":
           if (member.getValue() instanceof String) {
             obj.setRole(io.vertx.redis.client.RedisRole.valueOf((String)member.getValue()));
           }
           break;
+        case "sharedConnections":
+          if (member.getValue() instanceof Number) {
+            obj.setSharedConnections(((Number)member.getValue()).intValue());
+          }
+          break;
         case "type":
           if (member.getValue() instanceof String) {
             obj.setType(io.vertx.redis.client.RedisClientType.valueOf((String)member.getValue()));
@@ -85,6 +110,21 @@ public class RedisOptionsConverter {
             obj.setUseSlave(io.vertx.redis.client.RedisSlaves.valueOf((String)member.getValue()));
           }
           break;
+        case "waitingQueueTimeout":
+          if (member.getValue() instanceof Number) {
+            obj.setWaitingQueueTimeout(((Number)member.getValue()).longValue());
+          }
+          break;
+        case "writeCoalescing":
+          if (member.getValue() instanceof Boolean) {
+            obj.setWriteCoalescing((Boolean)member.getValue());
+          }
+          break;
+        case "zeroCopyBulk":
+          if (member.getValue() instanceof Boolean) {
+            obj.setZeroCopyBulk((Boolean)member.getValue());
+          }
+          break;
       }
     }
   }
@@ -102,9 +142,11 @@ public class RedisOptionsConverter {
       obj.getEndpoints().forEach(item -> array.add(item));
       json.put("endpoints", array);
     }
+    json.put("lazyMulti", obj.isLazyMulti());
     if (obj.getMasterName() != null) {
       json.put("masterName", obj.getMasterName());
     }
+    json.put("maxBufferedBytes", obj.getMaxBufferedBytes());
     json.put("maxNestedArrays", obj.getMaxNestedArrays());
     json.put("maxPoolSize", obj.getMaxPoolSize());
     json.put("maxPoolWaiting", obj.getMaxPoolWaiting());
@@ -114,14 +156,22 @@ public class RedisOptionsConverter {
     }
     json.put("poolCleanerInterval", obj.getPoolCleanerInterval());
     json.put("poolRecycleTimeout", obj.getPoolRecycleTimeout());
+    if (obj.getPreferredProtocolVersion() != null) {
+      json.put("preferredProtocolVersion", obj.getPreferredProtocolVersion().name());
+    }
+    json.put("requestTimeout", obj.getRequestTimeout());
     if (obj.getRole() != null) {
       json.put("role", obj.getRole().name());
     }
+    json.put("sharedConnections", obj.getSharedConnections());
     if (obj.getType() != null) {
       json.put("type", obj.getType().name());
     }
     if (obj.getUseSlave() != null) {
       json.put("useSlave", obj.getUseSlave().name());
     }
+    json.put("waitingQueueTimeout", obj.getWaitingQueueTimeout());
+    json.put("writeCoalescing", obj.isWriteCoalescing());
+    json.put("zeroCopyBulk", obj.isZeroCopyBulk());
   }
 }
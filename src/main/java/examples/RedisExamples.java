@@ -4,8 +4,11 @@ import io.vertx.core.AbstractVerticle;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.file.AsyncFile;
 import io.vertx.redis.client.*;
 
+import java.util.Map;
+
 /**
  * These are the examples used in the documentation.
  *
@@ -170,4 +173,89 @@ public class RedisExamples {
       }
     }
   }
+
+  public void example11(RedisConnection redis, AsyncFile file) {
+
+    redis.streamBulk(Request.cmd(Command.GET).arg("large-key"), onStream -> {
+      if (onStream.succeeded() && onStream.result() != null) {
+        // the value is written to the file without being aggregated
+        onStream.result().pipeTo(file);
+      }
+    });
+  }
+
+  public void example12(RedisConnection redis) {
+
+    redis.streamMulti(Request.cmd(Command.SMEMBERS).arg("large-set"), onStream -> {
+      if (onStream.succeeded() && onStream.result() != null) {
+        onStream.result()
+          .handler(member -> {
+            // process each member as soon as it is received
+          })
+          .endHandler(v -> {
+            // all members have been received
+          });
+      }
+    });
+  }
+
+  public void example13(Vertx vertx) {
+
+    Redis.createClient(vertx, new RedisOptions().setPreferredProtocolVersion(ProtocolVersion.RESP3))
+      .connect(onConnect -> {
+        if (onConnect.succeeded()) {
+          RedisConnection client = onConnect.result();
+
+          client.send(Request.cmd(Command.ZSCORE).arg("myzset").arg("member"), send -> {
+            if (send.succeeded()) {
+              // RESP3 doubles need no string round trip
+              Double score = send.result().toDouble();
+            }
+          });
+        }
+      });
+  }
+
+  public void example14(RedisConnection redis) {
+
+    redis.send(Request.cmd(Command.HGETALL).arg("user:1000"), ResponseDecoder.map(), send -> {
+      if (send.succeeded()) {
+        // the fields are decoded to strings without building a multi response
+        Map<String, String> user = send.result();
+      }
+    });
+  }
+
+  // constant parts of the request are encoded once
+  private static final PreparedRequest HINCRBY = Request.prepare(Command.HINCRBY, PreparedRequest.PLACEHOLDER, "visits", 1);
+
+  public void example15(RedisConnection redis, String id) {
+
+    // only the key is encoded for each request
+    redis.send(HINCRBY.request().arg("stats:" + id), send -> {
+      if (send.succeeded()) {
+        long visits = send.result().toLong();
+      }
+    });
+  }
+
+  public void example16(Vertx vertx) {
+
+    Redis client = Redis.createClient(vertx, new RedisOptions().setSharedConnections(4));
+
+    client.send(Request.cmd(Command.INCR).arg("counter"), send -> {
+      if (send.succeeded()) {
+        long counter = send.result().toLong();
+      }
+    });
+  }
+
+  public void example17(Vertx vertx) {
+
+    Redis client = Redis.createClient(vertx, new RedisOptions().setRequestTimeout(1000));
+    BlockingRedis redis = BlockingRedis.create(client);
+
+    // from a thread of its own, never from the event loop
+    long counter = redis.send(Request.cmd(Command.INCR).arg("counter")).toLong();
+  }
 }
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * <p>
+ * The Eclipse Public License is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * <p>
+ * The Apache License v2.0 is available at
+ * http://www.opensource.org/licenses/apache2.0.php
+ * <p>
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.client;
+
+import io.vertx.codegen.annotations.Nullable;
+import io.vertx.core.VertxException;
+import io.vertx.redis.client.impl.BlockingRedisImpl;
+
+import java.util.List;
+
+/**
+ * A synchronous view of a {@link Redis} client or of a {@link RedisConnection}, for code running on its own threads
+ * (e.g.: virtual threads) rather than on the event loop.
+ *
+ * Each call parks the calling thread until the reply arrives, without any future in between. Requests from any number
+ * of threads share the same connection(s), those sent while the event loop is busy are written together in a single
+ * pipelined write. The calls must never be made from an event loop thread.
+ *
+ * A failed request throws a {@link VertxException} with the failure as its cause, request timeouts are those of the
+ * connection (see {@link RedisOptions#setRequestTimeout(long)}).
+ */
+public interface BlockingRedis {
+
+  /**
+   * Create a blocking view of a client, requests are sent like {@link Redis#send(Request, io.vertx.core.Handler)}.
+   *
+   * @param client the client.
+   * @return the blocking client.
+   */
+  static BlockingRedis create(Redis client) {
+    return new BlockingRedisImpl(client::send, client::batch);
+  }
+
+  /**
+   * Create a blocking view of a connection.
+   *
+   * @param connection the connection.
+   * @return the blocking connection.
+   */
+  static BlockingRedis create(RedisConnection connection) {
+    return new BlockingRedisImpl(connection::send, connection::batch);
+  }
+
+  /**
+   * Send the given command and wait for its reply.
+   *
+   * @param request the command.
+   * @return the reply.
+   * @throws VertxException when the request fails or the waiting thread is interrupted.
+   */
+  @Nullable Response send(Request request);
+
+  /**
+   * Send the given commands as a pipeline and wait for all their replies.
+   *
+   * @param requests the commands.
+   * @return the replies, in the order of the commands.
+   * @throws VertxException when a request fails or the waiting thread is interrupted.
+   */
+  List<@Nullable Response> batch(List<Request> requests);
+}
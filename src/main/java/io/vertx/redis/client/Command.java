@@ -74,6 +74,7 @@ public interface Command {
   Command GETRANGE = Command.create("getrange", 4, 1, 1, 1, true, false);
   Command GETSET = Command.create("getset", 3, 1, 1, 1, false, false);
   Command HDEL = Command.create("hdel", -3, 1, 1, 1, false, false);
+  Command HELLO = Command.create("hello", -1, 0, 0, 0, false, false);
   Command HEXISTS = Command.create("hexists", 3, 1, 1, 1, true, false);
   Command HGET = Command.create("hget", 3, 1, 1, 1, true, false);
   Command HGETALL = Command.create("hgetall", 2, 1, 1, 1, true, false);
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * <p>
+ * The Eclipse Public License is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * <p>
+ * The Apache License v2.0 is available at
+ * http://www.opensource.org/licenses/apache2.0.php
+ * <p>
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.client;
+
+import io.vertx.redis.client.impl.PreparedRequestImpl;
+
+/**
+ * A request template for a command that is sent many times with the same shape, e.g.: {@code GET user:{id}} or
+ * {@code HINCRBY stats:{id} field 1}. The header and the constant arguments are encoded once, when the template is
+ * prepared, each request created from it only encodes the values of its placeholders.
+ *
+ * <pre>
+ * PreparedRequest hincrby = Request.prepare(Command.HINCRBY, PreparedRequest.PLACEHOLDER, "field", 1);
+ * connection.send(hincrby.request().arg("stats:" + id), handler);
+ * </pre>
+ *
+ * Templates are immutable and can be shared.
+ */
+public interface PreparedRequest {
+
+  /**
+   * Marks an argument whose value is given to each request.
+   */
+  Object PLACEHOLDER = new Object() {
+    @Override
+    public String toString() {
+      return "PLACEHOLDER";
+    }
+  };
+
+  /**
+   * Prepares a template. The constant arguments can be {@code null}, {@code String}s (encoded as UTF-8), {@code byte[]},
+   * {@link io.vertx.core.buffer.Buffer}s, integral numbers or booleans.
+   *
+   * @param command the command.
+   * @param args the arguments, {@link #PLACEHOLDER} marks the variable ones.
+   * @return the template.
+   */
+  static PreparedRequest prepare(Command command, Object... args) {
+    return new PreparedRequestImpl(command, args);
+  }
+
+  /**
+   * @return the command of the template.
+   */
+  Command command();
+
+  /**
+   * @return the number of placeholders.
+   */
+  int placeholders();
+
+  /**
+   * Creates a request, the arguments added to it fill the placeholders in order. A request can only be sent once all
+   * the placeholders are filled.
+   *
+   * @return a new request.
+   */
+  Request request();
+}
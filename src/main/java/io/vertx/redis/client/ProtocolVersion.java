@@ -0,0 +1,34 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * <p>
+ * The Eclipse Public License is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * <p>
+ * The Apache License v2.0 is available at
+ * http://www.opensource.org/licenses/apache2.0.php
+ * <p>
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.client;
+
+import io.vertx.codegen.annotations.VertxGen;
+
+/**
+ * Redis protocol versions.
+ */
+@VertxGen
+public enum ProtocolVersion {
+  /**
+   * The RESP2 protocol, understood by all Redis servers.
+   */
+  RESP2,
+
+  /**
+   * The RESP3 protocol (Redis 6 and newer), negotiated with the {@code HELLO} command.
+   */
+  RESP3
+}
@@ -16,12 +16,15 @@
 package io.vertx.redis.client;
 
 import io.vertx.codegen.annotations.Fluent;
+import io.vertx.codegen.annotations.Nullable;
 import io.vertx.codegen.annotations.VertxGen;
 import io.vertx.core.*;
 import io.vertx.redis.client.impl.RedisClient;
 import io.vertx.redis.client.impl.RedisClusterClient;
 import io.vertx.redis.client.impl.RedisSentinelClient;
 
+import java.util.List;
+
 /**
  * A simple Redis client.
  */
@@ -86,6 +89,61 @@ public interface Redis {
     return promise.future();
   }
 
+  /**
+   * Send the given command through one of the connections shared by all the users of this client, no connection has
+   * to be obtained first. The shared connections are pipelined and long lived (see
+   * {@link RedisOptions#setSharedConnections(int)}).
+   *
+   * Blocking commands (e.g.: {@code BLPOP}) are sent through a dedicated connection. Commands that change the state of
+   * the connection (pub/sub, transactions, {@code SELECT}...) are rejected, they need a connection from
+   * {@link #connect(Handler)}.
+   *
+   * @param command the command to send
+   * @param onSend the asynchronous result handler.
+   * @return fluent self.
+   */
+  @Fluent
+  Redis send(Request command, Handler<AsyncResult<@Nullable Response>> onSend);
+
+  /**
+   * Send the given command through one of the connections shared by all the users of this client.
+   *
+   * @param command the command to send
+   * @return a future with the result of the operation
+   * @see #send(Request, Handler)
+   */
+  default Future<@Nullable Response> send(Request command) {
+    final Promise<@Nullable Response> promise = Promise.promise();
+    send(command, promise);
+    return promise.future();
+  }
+
+  /**
+   * Sends a list of commands in a single IO operation through one of the connections shared by all the users of this
+   * client. Batches with transactions ({@code MULTI}, {@code WATCH}...) or blocking commands are sent through a
+   * dedicated connection.
+   *
+   * @param commands list of command to send
+   * @param onSend the asynchronous result handler.
+   * @return fluent self.
+   */
+  @Fluent
+  Redis batch(List<Request> commands, Handler<AsyncResult<List<@Nullable Response>>> onSend);
+
+  /**
+   * Sends a list of commands in a single IO operation through one of the connections shared by all the users of this
+   * client.
+   *
+   * @param commands list of command to send
+   * @return a future with the result of the operation
+   * @see #batch(List, Handler)
+   */
+  default Future<List<@Nullable Response>> batch(List<Request> commands) {
+    final Promise<List<@Nullable Response>> promise = Promise.promise();
+    batch(commands, promise);
+    return promise.future();
+  }
+
   /**
    * Closes the client and terminates any connection.
    */
@@ -837,6 +837,23 @@ public interface RedisAPI {
   default Future<@Nullable Response> hdel(List<String> args) {
     return send(Command.HDEL, args.toArray(new String[0]));
   }
+  /**
+   * Redis command <a href="https://redis.io/commands/hello">hello</a>.
+   * @return fluent self
+   */
+  @Fluent
+  default RedisAPI hello(List<String> args, Handler<AsyncResult<@Nullable Response>> handler) {
+    send(Command.HELLO, args.toArray(new String[0])).setHandler(handler);
+    return this;
+  }
+
+  /**
+   * Redis command <a href="https://redis.io/commands/hello">hello</a>.
+   * @return Future response.
+   */
+  default Future<@Nullable Response> hello(List<String> args) {
+    return send(Command.HELLO, args.toArray(new String[0]));
+  }
   /**
    * Redis command <a href="https://redis.io/commands/hexists">hexists</a>.
    * @return fluent self
@@ -16,9 +16,11 @@
 package io.vertx.redis.client;
 
 import io.vertx.codegen.annotations.Fluent;
+import io.vertx.codegen.annotations.GenIgnore;
 import io.vertx.codegen.annotations.Nullable;
 import io.vertx.codegen.annotations.VertxGen;
 import io.vertx.core.*;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.streams.ReadStream;
 
 import java.util.List;
@@ -92,6 +94,35 @@ public interface RedisConnection extends ReadStream<Response> {
     return promise.future();
   }
 
+  /**
+   * Send the given command and decode its reply with the given decoder. The reply is decoded as it is parsed, no
+   * {@link Response} is created for it (e.g.: {@code send(cmd(GET).arg(key), ResponseDecoder.string(), ...)}).
+   *
+   * Error replies fail the handler, a {@code NULL} reply is decoded as the decoder result for it.
+   *
+   * @param command the command to send
+   * @param decoder a new decoder for the reply
+   * @param onSend the asynchronous result handler.
+   * @return fluent self.
+   */
+  @Fluent
+  @GenIgnore
+  <T> RedisConnection send(Request command, ResponseDecoder<T> decoder, Handler<AsyncResult<@Nullable T>> onSend);
+
+  /**
+   * Send the given command and decode its reply with the given decoder.
+   * @param command the command to send
+   * @param decoder a new decoder for the reply
+   * @return a future with the decoded reply
+   * @see #send(Request, ResponseDecoder, Handler)
+   */
+  @GenIgnore
+  default <T> Future<@Nullable T> send(Request command, ResponseDecoder<T> decoder) {
+    final Promise<@Nullable T> promise = Promise.promise();
+    send(command, decoder, promise);
+    return promise.future();
+  }
+
   /**
    * Sends a list of commands in a single IO operation, this prevents any inter twinning to happen from other
    * client users.
@@ -116,6 +147,61 @@ public interface RedisConnection extends ReadStream<Response> {
     return promise.future();
   }
 
+  /**
+   * Send the given command and stream its bulk reply. The stream is handed over as soon as the reply header is
+   * received and the payload is then delivered in chunks as it arrives from the network, when the stream is paused
+   * the connection stops reading. This allows very large values to be piped to a file or a HTTP response without
+   * holding them in memory.
+   *
+   * A {@code NULL} reply completes the handler with {@code null}, errors and replies that are not a bulk fail it.
+   *
+   * @param command the command to send
+   * @param onStream the asynchronous result handler.
+   * @return fluent self.
+   */
+  @Fluent
+  RedisConnection streamBulk(Request command, Handler<AsyncResult<@Nullable ReadStream<Buffer>>> onStream);
+
+  /**
+   * Send the given command and stream its bulk reply.
+   * @param command the command to send
+   * @return a future with the stream of the reply payload
+   * @see #streamBulk(Request, Handler)
+   */
+  default Future<@Nullable ReadStream<Buffer>> streamBulk(Request command) {
+    final Promise<@Nullable ReadStream<Buffer>> promise = Promise.promise();
+    streamBulk(command, promise);
+    return promise.future();
+  }
+
+  /**
+   * Send the given command and stream the elements of its multi reply. The stream is handed over as soon as the reply
+   * header is received and each element is delivered as soon as it is parsed (nested multis are delivered as a whole
+   * element), when the stream is paused the connection stops reading. This keeps the memory of replies with millions of
+   * elements (e.g.: {@code KEYS}, {@code SMEMBERS}, {@code LRANGE}) bounded and processing can start before the last
+   * element arrives.
+   *
+   * A {@code NULL} reply completes the handler with {@code null}, errors and replies that are not a multi fail it.
+   *
+   * @param command the command to send
+   * @param onStream the asynchronous result handler.
+   * @return fluent self.
+   */
+  @Fluent
+  RedisConnection streamMulti(Request command, Handler<AsyncResult<@Nullable ReadStream<Response>>> onStream);
+
+  /**
+   * Send the given command and stream the elements of its multi reply.
+   * @param command the command to send
+   * @return a future with the stream of the reply elements
+   * @see #streamMulti(Request, Handler)
+   */
+  default Future<@Nullable ReadStream<Response>> streamMulti(Request command) {
+    final Promise<@Nullable ReadStream<Response>> promise = Promise.promise();
+    streamMulti(command, promise);
+    return promise.future();
+  }
+
   /**
    * Closes the connection or returns to the pool.
    */
@@ -130,4 +216,35 @@ public interface RedisConnection extends ReadStream<Response> {
    * @return true is queue is full.
    */
   boolean pendingQueueFull();
+
+  /**
+   * Flag to notify if the connection cannot take more requests right now, either all the slots of the pending message
+   * queue are taken or the socket cannot be written to until the bytes already queued are flushed.
+   *
+   * Requests sent while the pending message queue is full wait for a free slot for up to
+   * {@link RedisOptions#setWaitingQueueTimeout(long)}, checking this flag (and waiting for the
+   * {@link #drainHandler(Handler)}) keeps the latency bounded without failures.
+   *
+   * @return true if the connection is full.
+   */
+  boolean writeQueueFull();
+
+  /**
+   * Set a drain handler on the connection. It is called once {@link #writeQueueFull()} was true and the connection can
+   * take requests again.
+   *
+   * @param handler the handler.
+   * @return a reference to this, so the API can be used fluently.
+   */
+  @Fluent
+  RedisConnection drainHandler(@Nullable Handler<Void> handler);
+
+  /**
+   * The number of bytes the connection currently holds in its receive buffer, for monitoring. Parsed bytes are released
+   * as soon as they are no longer needed, so an idle connection retains nothing (or the start of a reply that is not
+   * complete yet).
+   *
+   * @return the retained receive buffer bytes (the sum of all the node connections in cluster mode).
+   */
+  long retainedBufferBytes();
 }
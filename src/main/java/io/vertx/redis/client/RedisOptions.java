@@ -39,7 +39,15 @@ public class RedisOptions {
   private NetClientOptions netClientOptions;
   private List<String> endpoints;
   private int maxWaitingHandlers;
+  private long waitingQueueTimeout;
   private int maxNestedArrays;
+  private long maxBufferedBytes;
+  private boolean zeroCopyBulk;
+  private boolean lazyMulti;
+  private boolean writeCoalescing;
+  private int sharedConnections;
+  private long requestTimeout;
+  private ProtocolVersion preferredProtocolVersion;
   private String masterName;
   private RedisRole role;
   private RedisSlaves slaves;
@@ -56,7 +64,16 @@ public class RedisOptions {
         .setTcpNoDelay(true);
 
     maxWaitingHandlers = 2048;
+    waitingQueueTimeout = 0;
     maxNestedArrays = 32;
+    // the largest bulk (512MB) plus some slack for pipelined replies
+    maxBufferedBytes = 537919488L;
+    zeroCopyBulk = false;
+    lazyMulti = false;
+    writeCoalescing = false;
+    sharedConnections = 1;
+    requestTimeout = 0;
+    preferredProtocolVersion = ProtocolVersion.RESP2;
     masterName = "mymaster";
     role = RedisRole.MASTER;
     slaves = RedisSlaves.NEVER;
@@ -83,7 +100,15 @@ public class RedisOptions {
     this.netClientOptions = other.netClientOptions;
     this.endpoints = other.endpoints;
     this.maxWaitingHandlers = other.maxWaitingHandlers;
+    this.waitingQueueTimeout = other.waitingQueueTimeout;
     this.maxNestedArrays = other.maxNestedArrays;
+    this.maxBufferedBytes = other.maxBufferedBytes;
+    this.zeroCopyBulk = other.zeroCopyBulk;
+    this.lazyMulti = other.lazyMulti;
+    this.writeCoalescing = other.writeCoalescing;
+    this.sharedConnections = other.sharedConnections;
+    this.requestTimeout = other.requestTimeout;
+    this.preferredProtocolVersion = other.preferredProtocolVersion;
     this.masterName = other.masterName;
     this.role = other.role;
     this.slaves = other.slaves;
@@ -231,6 +256,27 @@ public class RedisOptions {
     return this;
   }
 
+  /**
+   * Get the time in milliseconds a request can wait for a free slot of the waiting queue.
+   * @return the waiting queue timeout, {@code 0} when requests fail right away.
+   */
+  public long getWaitingQueueTimeout() {
+    return waitingQueueTimeout;
+  }
+
+  /**
+   * Set the time in milliseconds a request can wait for a free slot when the waiting queue (see
+   * {@link #setMaxWaitingHandlers(int)}) is full. Requests are then held in order and sent as replies arrive, the ones
+   * still held when the time is up fail. With the default {@code 0} a request sent to a full queue fails right away.
+   *
+   * @param waitingQueueTimeout the waiting queue timeout.
+   * @return fluent self.
+   */
+  public RedisOptions setWaitingQueueTimeout(long waitingQueueTimeout) {
+    this.waitingQueueTimeout = waitingQueueTimeout;
+    return this;
+  }
+
   /**
    * Get the master name (only considered in HA mode).
    * @return the master name.
@@ -304,6 +350,161 @@ public class RedisOptions {
     return this;
   }
 
+  /**
+   * Get the maximum number of bytes a connection buffers while waiting for a reply to be complete.
+   * @return the configured max buffered bytes per connection.
+   */
+  public long getMaxBufferedBytes() {
+    return maxBufferedBytes;
+  }
+
+  /**
+   * Set the maximum number of bytes a connection buffers while waiting for a reply to be complete. A connection that
+   * receives more is closed, so this bounds the receive memory of every connection. Replies are buffered until they
+   * are complete (e.g.: a bulk reply of 10MB needs 10MB of buffer) except when they are streamed.
+   *
+   * @param maxBufferedBytes the max buffered bytes per connection.
+   * @return fluent self.
+   */
+  public RedisOptions setMaxBufferedBytes(long maxBufferedBytes) {
+    this.maxBufferedBytes = maxBufferedBytes;
+    return this;
+  }
+
+  /**
+   * Get whether bulk responses are decoded as views over the receive buffer instead of copies.
+   * @return true if bulk strings are not copied.
+   */
+  public boolean isZeroCopyBulk() {
+    return zeroCopyBulk;
+  }
+
+  /**
+   * Decode bulk responses as read only views over the receive buffer instead of copying them. This avoids one copy of
+   * every bulk payload: the connection reads into unpooled buffers that are reclaimed by the garbage collector instead of
+   * being recycled, so the views need no release. A view keeps the network chunk it was read from reachable for as long
+   * as the response is referenced, so values that are kept around for long should be copied with
+   * {@link io.vertx.core.buffer.Buffer#copy()}. The returned buffers must not be modified.
+   *
+   * @param zeroCopyBulk true to avoid copying bulk strings.
+   * @return fluent self.
+   */
+  public RedisOptions setZeroCopyBulk(boolean zeroCopyBulk) {
+    this.zeroCopyBulk = zeroCopyBulk;
+    return this;
+  }
+
+  /**
+   * Get whether multi responses are decoded on demand.
+   * @return true if multi responses are lazy.
+   */
+  public boolean isLazyMulti() {
+    return lazyMulti;
+  }
+
+  /**
+   * Decode multi responses on demand. While parsing only the boundaries of the values are recorded in a compact index
+   * and the reply frame is retained (read into unpooled buffers like {@link #setZeroCopyBulk(boolean)}), elements are
+   * decoded when they are accessed. This saves most of the allocations when only a few elements of a large reply are
+   * used (e.g.: a couple of fields of a {@code HGETALL}), but the whole frame stays in memory for as long as the
+   * response or any of its elements is referenced.
+   *
+   * @param lazyMulti true to decode multi responses on demand.
+   * @return fluent self.
+   */
+  public RedisOptions setLazyMulti(boolean lazyMulti) {
+    this.lazyMulti = lazyMulti;
+    return this;
+  }
+
+  /**
+   * Get whether the requests sent during an event loop iteration are written together.
+   * @return true if writes are coalesced.
+   */
+  public boolean isWriteCoalescing() {
+    return writeCoalescing;
+  }
+
+  /**
+   * Coalesce the writes of a connection. The requests sent during an event loop iteration (e.g.: by many concurrent
+   * callers) are encoded to a single outbound buffer which is flushed once at the end of the iteration, or as soon as
+   * it grows large, instead of flushing every request on its own. This trades a little latency for far fewer system
+   * calls under load.
+   *
+   * @param writeCoalescing true to coalesce writes.
+   * @return fluent self.
+   */
+  public RedisOptions setWriteCoalescing(boolean writeCoalescing) {
+    this.writeCoalescing = writeCoalescing;
+    return this;
+  }
+
+  /**
+   * Get the number of connections shared by all the users of the client.
+   * @return the number of shared connections.
+   */
+  public int getSharedConnections() {
+    return sharedConnections;
+  }
+
+  /**
+   * Set the number of connections used by {@link Redis#send(Request, io.vertx.core.Handler)} and
+   * {@link Redis#batch(java.util.List, io.vertx.core.Handler)}. These connections are shared by all the callers, they
+   * are pipelined and long lived, there is no check out per request. A standalone client keeps them outside of the
+   * pool, with sentinel and cluster clients they are held from the pool so {@link #setMaxPoolSize(int)} must leave
+   * room for them.
+   *
+   * @param sharedConnections the number of shared connections.
+   * @return fluent self.
+   */
+  public RedisOptions setSharedConnections(int sharedConnections) {
+    this.sharedConnections = sharedConnections;
+    return this;
+  }
+
+  /**
+   * Get the default time in milliseconds a request can wait for its reply.
+   * @return the request timeout, {@code 0} when requests never time out.
+   */
+  public long getRequestTimeout() {
+    return requestTimeout;
+  }
+
+  /**
+   * Set the default time in milliseconds a request can wait for its reply, a request can override it with
+   * {@link Request#timeout(long)}. Once a request times out, all the requests waiting on the same connection fail and
+   * the connection is closed, as any later reply would otherwise be matched with the wrong request.
+   *
+   * @param requestTimeout the request timeout, {@code 0} (the default) to disable it.
+   * @return fluent self.
+   */
+  public RedisOptions setRequestTimeout(long requestTimeout) {
+    this.requestTimeout = requestTimeout;
+    return this;
+  }
+
+  /**
+   * Get the protocol version to be negotiated on connection start.
+   * @return the preferred protocol version.
+   */
+  public ProtocolVersion getPreferredProtocolVersion() {
+    return preferredProtocolVersion;
+  }
+
+  /**
+   * Set the protocol version to be negotiated on connection start. When RESP3 is preferred the connection handshake
+   * sends {@code HELLO 3} and falls back to RESP2 if the server does not support it. RESP3 replies carry native maps,
+   * sets, doubles, booleans and out of band push messages (pub/sub and client tracking invalidations), push messages are
+   * always delivered to the connection handler.
+   *
+   * @param preferredProtocolVersion the preferred protocol version.
+   * @return fluent self.
+   */
+  public RedisOptions setPreferredProtocolVersion(ProtocolVersion preferredProtocolVersion) {
+    this.preferredProtocolVersion = preferredProtocolVersion;
+    return this;
+  }
+
   /**
    * Tune how often in milliseconds should the connection pool cleaner execute.
    * @return the cleaning internal
@@ -45,6 +45,18 @@ public interface Request {
     return new RequestImpl(command);
   }
 
+  /**
+   * Prepares a request template, see {@link PreparedRequest}.
+   *
+   * @param command the command.
+   * @param args the arguments, {@link PreparedRequest#PLACEHOLDER} marks the variable ones.
+   * @return the template.
+   */
+  @GenIgnore
+  static PreparedRequest prepare(Command command, Object... args) {
+    return PreparedRequest.prepare(command, args);
+  }
+
   /**
    * Adds a byte array
    * @return self
@@ -78,7 +90,11 @@ public interface Request {
   }
 
   /**
-   * Adds a String key argument
+   * Adds a Buffer argument, sent as a bulk string with the bytes of the buffer.
+   *
+   * Buffers of 8KB or more are not copied, they are kept by reference and written as they are when the request is
+   * sent: modifying such a buffer after {@code send()} changes the bytes on the wire. Smaller buffers are copied right
+   * away.
    * @return self
    */
   @Fluent
@@ -141,6 +157,15 @@ public interface Request {
   @Fluent
   Request nullArg();
 
+  /**
+   * Sets the time in milliseconds this request can wait for its reply, overriding
+   * {@link RedisOptions#setRequestTimeout(long)}. When it times out the connection it was sent on is closed.
+   * @param timeout the timeout, {@code 0} to use the default of the connection.
+   * @return self
+   */
+  @Fluent
+  Request timeout(long timeout);
+
   /**
    * Get the Command that is to be used by this request.
    * @return the command.
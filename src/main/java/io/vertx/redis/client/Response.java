@@ -103,6 +103,18 @@ public interface Response extends Iterable<Response> {
     return null;
   }
 
+  /**
+   * Get this response as a Double.
+   * @return double value.
+   */
+  default Double toDouble() {
+    final String msg = toString();
+    if (msg != null) {
+      return Double.parseDouble(msg);
+    }
+    return null;
+  }
+
   /**
    * Get this response as a Boolean.
    * @return boolean value.
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * <p>
+ * The Eclipse Public License is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * <p>
+ * The Apache License v2.0 is available at
+ * http://www.opensource.org/licenses/apache2.0.php
+ * <p>
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.client;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.redis.client.impl.ResponseDecoders;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decodes a reply straight into the type the application needs. The parser drives the decoder with the events of the
+ * reply as it is parsed, so no {@link Response} is ever created for it.
+ *
+ * Multis are delivered as a start event, the events of each element and an end event. Events inside RESP3 attributes
+ * are not delivered. Error replies never reach the decoder, they fail the request instead. Any exception thrown by an
+ * event fails the request once the reply has been fully parsed.
+ *
+ * Decoders keep the state of the value being built, a new instance is needed for each request.
+ *
+ * @param <T> the decoded type.
+ */
+public interface ResponseDecoder<T> {
+
+  /**
+   * A simple string, bulk string, verbatim string or big number. The buffer is a view over the receive buffer, it is
+   * only valid during the call.
+   *
+   * @param value the bytes of the string.
+   */
+  default void onString(Buffer value) {
+    throw new IllegalStateException("Unexpected string in the reply");
+  }
+
+  /**
+   * An integer.
+   *
+   * @param value the integer.
+   */
+  default void onInteger(long value) {
+    throw new IllegalStateException("Unexpected integer in the reply");
+  }
+
+  /**
+   * A RESP3 double.
+   *
+   * @param value the double.
+   */
+  default void onDouble(double value) {
+    throw new IllegalStateException("Unexpected double in the reply");
+  }
+
+  /**
+   * A RESP3 boolean.
+   *
+   * @param value the boolean.
+   */
+  default void onBoolean(boolean value) {
+    throw new IllegalStateException("Unexpected boolean in the reply");
+  }
+
+  /**
+   * A {@code NULL} bulk string, multi or RESP3 null.
+   */
+  default void onNull() {
+  }
+
+  /**
+   * The start of a multi (or set), the events of its elements follow.
+   *
+   * @param size the number of elements.
+   */
+  default void onArrayStart(int size) {
+    throw new IllegalStateException("Unexpected multi in the reply");
+  }
+
+  /**
+   * The start of a RESP3 map, the events of its keys and values follow alternately.
+   *
+   * @param size the number of entries.
+   */
+  default void onMapStart(int size) {
+    onArrayStart(size * 2);
+  }
+
+  /**
+   * The end of the current multi or map.
+   */
+  default void onArrayEnd() {
+  }
+
+  /**
+   * @return the decoded value once all events of the reply have been delivered.
+   */
+  T result();
+
+  /**
+   * Decodes an integer, or a string holding an integer.
+   */
+  static ResponseDecoder<Long> longValue() {
+    return new ResponseDecoders.LongDecoder();
+  }
+
+  /**
+   * Decodes a double, or a string or integer holding a number.
+   */
+  static ResponseDecoder<Double> doubleValue() {
+    return new ResponseDecoders.DoubleDecoder();
+  }
+
+  /**
+   * Decodes a UTF-8 string, integers are decoded to their decimal representation.
+   */
+  static ResponseDecoder<String> string() {
+    return new ResponseDecoders.StringDecoder();
+  }
+
+  /**
+   * Decodes the raw bytes of a string.
+   */
+  static ResponseDecoder<byte[]> bytes() {
+    return new ResponseDecoders.BytesDecoder();
+  }
+
+  /**
+   * Decodes a multi of scalars (e.g.: {@code LRANGE}, {@code SMEMBERS}, {@code MGET}) to a list of UTF-8 strings.
+   */
+  static ResponseDecoder<List<String>> list() {
+    return new ResponseDecoders.ListDecoder();
+  }
+
+  /**
+   * Decodes a multi of key, value pairs (e.g.: {@code HGETALL}) or a RESP3 map of scalars to a map of UTF-8 strings.
+   */
+  static ResponseDecoder<Map<String, String>> map() {
+    return new ResponseDecoders.MapDecoder();
+  }
+
+  /**
+   * Decodes a multi of key, value pairs or a RESP3 map to a JSON object. Strings are decoded as UTF-8, numbers and
+   * booleans keep their type and nested multis and maps become JSON arrays and objects.
+   */
+  static ResponseDecoder<JsonObject> json() {
+    return new ResponseDecoders.JsonDecoder();
+  }
+}
@@ -43,7 +43,22 @@ public enum ResponseType {
   BULK,
 
   /**
-   * List of multiple bulk responses.
+   * List of multiple bulk responses, RESP3 maps (flattened as key, value pairs) and sets are also multis.
    */
-  MULTI
+  MULTI,
+
+  /**
+   * RESP3 boolean value.
+   */
+  BOOLEAN,
+
+  /**
+   * RESP3 double or big number value.
+   */
+  NUMBER,
+
+  /**
+   * RESP3 out of band data (pub/sub messages, client tracking invalidations), a list of multiple responses.
+   */
+  PUSH
 }
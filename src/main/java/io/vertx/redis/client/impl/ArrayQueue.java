@@ -15,15 +15,20 @@
  */
 package io.vertx.redis.client.impl;
 
-import java.util.NoSuchElementException;
-
 final class ArrayQueue {
 
+  // takes the place of an element that was removed out of order, it is dropped once it reaches the front
+  private static final Object SKIPPED = new Object();
+
   private int
     cur,      // current number of elements
     front,    // front index
     back;     // back index
 
+  // number of elements ever removed, the position of an element in the sequence of all the offered elements is
+  // polled() + its index in the queue
+  private long polled;
+
   private final Object[] queue;
 
   /**
@@ -76,15 +81,66 @@ final class ArrayQueue {
   /**
    * Returns and removes the front element of the queuee. It works with wraparound.
    *
-   * @return element at front of the queue
-   * @throws NoSuchElementException if the queue is empty.
+   * @return element at front of the queue, null if empty.
    */
   <T> T poll() {
+    if (isEmpty()) {
+      return null;
+    }
     T e = peek();
+    removeFront();
+    // the front is never a skipped element
+    while (!isEmpty() && queue[front % queue.length] == SKIPPED) {
+      removeFront();
+    }
+    return e;
+  }
+
+  private void removeFront() {
     queue[front % queue.length] = null; // for garbage collection
     front++;
     cur--;
-    return e;
+    polled++;
+  }
+
+  /**
+   * Removes an element out of order, its slot is only reused once the elements before it have been removed.
+   *
+   * @param sequence the sequence number of the element.
+   * @return the element, null if it is not in the queue.
+   */
+  <T> T skip(long sequence) {
+    if (sequence < polled || sequence >= offered()) {
+      return null;
+    }
+    final int index = (int) ((front + (sequence - polled)) % queue.length);
+    final Object e = queue[index];
+    if (e == SKIPPED) {
+      return null;
+    }
+    if (sequence == polled) {
+      return poll();
+    }
+    queue[index] = SKIPPED;
+    return (T) e;
+  }
+
+  /**
+   * @return the number of elements removed so far, which is also the sequence number of the front element.
+   */
+  long polled() {
+    return polled;
+  }
+
+  /**
+   * @return the number of elements offered so far, which is also the sequence number of the next one.
+   */
+  long offered() {
+    return polled + cur;
+  }
+
+  int capacity() {
+    return queue.length;
   }
 
   int freeSlots() {
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * <p>
+ * The Eclipse Public License is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * <p>
+ * The Apache License v2.0 is available at
+ * http://www.opensource.org/licenses/apache2.0.php
+ * <p>
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.client.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.VertxException;
+import io.vertx.redis.client.BlockingRedis;
+import io.vertx.redis.client.Request;
+import io.vertx.redis.client.Response;
+
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+
+public final class BlockingRedisImpl implements BlockingRedis {
+
+  private final BiConsumer<Request, Handler<AsyncResult<Response>>> send;
+  private final BiConsumer<List<Request>, Handler<AsyncResult<List<Response>>>> batch;
+
+  public BlockingRedisImpl(BiConsumer<Request, Handler<AsyncResult<Response>>> send, BiConsumer<List<Request>, Handler<AsyncResult<List<Response>>>> batch) {
+    this.send = send;
+    this.batch = batch;
+  }
+
+  @Override
+  public Response send(Request request) {
+    checkThread();
+    final Waiter<Response> waiter = new Waiter<>();
+    send.accept(request, waiter);
+    return waiter.await();
+  }
+
+  @Override
+  public List<Response> batch(List<Request> requests) {
+    checkThread();
+    final Waiter<List<Response>> waiter = new Waiter<>();
+    batch.accept(requests, waiter);
+    return waiter.await();
+  }
+
+  private static void checkThread() {
+    if (Context.isOnEventLoopThread()) {
+      // the reply would be handled by the thread that waits for it
+      throw new IllegalStateException("Cannot wait for a Redis reply on an event loop thread");
+    }
+  }
+
+  /**
+   * The handler of a request, it hands the reply over to the thread waiting for it. The thread is parked rather than
+   * waiting on a monitor, a virtual thread is unmounted while it waits.
+   */
+  private static final class Waiter<T> implements Handler<AsyncResult<T>> {
+
+    private final Thread thread = Thread.currentThread();
+    private volatile AsyncResult<T> result;
+
+    @Override
+    public void handle(AsyncResult<T> result) {
+      this.result = result;
+      LockSupport.unpark(thread);
+    }
+
+    T await() {
+      AsyncResult<T> reply;
+
+      // park returns spuriously too, only the reply (or an interrupt) ends the wait
+      while ((reply = result) == null) {
+        LockSupport.park(this);
+        if (Thread.currentThread().isInterrupted() && result == null) {
+          // the request is still in flight, its reply will be dropped
+          throw new VertxException("Interrupted while waiting for the Redis reply", new InterruptedException());
+        }
+      }
+
+      if (reply.succeeded()) {
+        return reply.result();
+      }
+
+      final Throwable cause = reply.cause();
+      if (cause instanceof VertxException) {
+        throw (VertxException) cause;
+      }
+      throw new VertxException(cause.getMessage(), cause);
+    }
+  }
+}
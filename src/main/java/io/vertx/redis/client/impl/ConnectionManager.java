@@ -9,10 +9,10 @@ import io.vertx.core.http.impl.pool.ConnectionListener;
 import io.vertx.core.http.impl.pool.ConnectionProvider;
 import io.vertx.core.http.impl.pool.Pool;
 import io.vertx.core.impl.ContextInternal;
+import io.vertx.core.impl.NetSocketInternal;
 import io.vertx.core.impl.logging.Logger;
 import io.vertx.core.impl.logging.LoggerFactory;
 import io.vertx.core.net.NetClient;
-import io.vertx.core.net.NetSocket;
 import io.vertx.redis.client.*;
 
 import java.util.Map;
@@ -26,6 +26,21 @@ class ConnectionManager {
   private static final LongSupplier CLOCK = System::currentTimeMillis;
   private static final Handler<Throwable> DEFAULT_EXCEPTION_HANDLER = t -> LOG.error("Unhandled Error", t);
 
+  // connections outside of the pool have nothing to report to
+  private static final ConnectionListener<RedisConnection> UNPOOLED = new ConnectionListener<RedisConnection>() {
+    @Override
+    public void onConcurrencyChange(long concurrency) {
+    }
+
+    @Override
+    public void onRecycle(long expirationTimestamp) {
+    }
+
+    @Override
+    public void onEvict() {
+    }
+  };
+
   private final Vertx vertx;
   private final ContextInternal ctx;
   private final NetClient netClient;
@@ -73,13 +88,12 @@ class ConnectionManager {
         }
 
         // socket connection succeeded
-        final NetSocket netSocket = clientConnect.result();
+        final NetSocketInternal netSocket = (NetSocketInternal) clientConnect.result();
         // the connection
         final RedisConnectionImpl connection = new RedisConnectionImpl(vertx, connectionListener, netSocket, options);
 
-        // parser utility
+        // the replies are handled by the codec of the connection, the socket only reports the connection life cycle
         netSocket
-          .handler(new RESPParser(connection, options.getMaxNestedArrays()))
           .closeHandler(connection::end)
           .exceptionHandler(connection::fatal);
 
@@ -90,26 +104,29 @@ class ConnectionManager {
             return;
           }
 
-          // perform select
-          select(connection, redisURI.select(), select -> {
-            if (select.failed()) {
-              onConnect.handle(Future.failedFuture(select.cause()));
-              return;
-            }
-
-            // perform setup
-            setup(connection, setup, setup -> {
-              if (setup.failed()) {
-                onConnect.handle(Future.failedFuture(setup.cause()));
+          // negotiate the protocol
+          hello(connection, options.getPreferredProtocolVersion(), hello -> {
+            // perform select
+            select(connection, redisURI.select(), select -> {
+              if (select.failed()) {
+                onConnect.handle(Future.failedFuture(select.cause()));
                 return;
               }
 
-              // initialization complete
-              connection.handler(null);
-              connection.endHandler(null);
-              connection.exceptionHandler(DEFAULT_EXCEPTION_HANDLER);
+              // perform setup
+              setup(connection, setup, setup -> {
+                if (setup.failed()) {
+                  onConnect.handle(Future.failedFuture(setup.cause()));
+                  return;
+                }
 
-              onConnect.handle(Future.succeededFuture(new ConnectResult<>(connection, 1, options.getMaxPoolSize())));
+                // initialization complete
+                connection.handler(null);
+                connection.endHandler(null);
+                connection.exceptionHandler(DEFAULT_EXCEPTION_HANDLER);
+
+                onConnect.handle(Future.succeededFuture(new ConnectResult<>(connection, 1, options.getMaxPoolSize())));
+              });
             });
           });
         });
@@ -131,6 +148,20 @@ class ConnectionManager {
       });
     }
 
+    private void hello(RedisConnection connection, ProtocolVersion version, Handler<AsyncResult<Void>> handler) {
+      if (version != ProtocolVersion.RESP3) {
+        handler.handle(Future.succeededFuture());
+        return;
+      }
+      // negotiate RESP3, servers before 6 do not know HELLO and the connection simply stays on RESP2
+      connection.send(Request.cmd(Command.HELLO).arg(3), hello -> {
+        if (hello.failed()) {
+          LOG.debug("RESP3 not available, using RESP2: " + hello.cause().getMessage());
+        }
+        handler.handle(Future.succeededFuture());
+      });
+    }
+
     private void select(RedisConnection connection, Integer select, Handler<AsyncResult<Void>> handler) {
       if (select == null) {
         handler.handle(Future.succeededFuture());
@@ -191,6 +222,20 @@ class ConnectionManager {
     }
   }
 
+  /**
+   * Creates a connection outside of the pool, it is never recycled and lives until it is closed with
+   * {@link RedisConnectionImpl#forceClose()} or fails.
+   */
+  public void getUnpooledConnection(String address, Request setup, Handler<AsyncResult<RedisConnection>> handler) {
+    new RedisConnectionProvider(address, setup).connect(UNPOOLED, ctx, connect -> {
+      if (connect.failed()) {
+        handler.handle(Future.failedFuture(connect.cause()));
+      } else {
+        handler.handle(Future.succeededFuture(connect.result().connection()));
+      }
+    });
+  }
+
   public void close() {
     synchronized (this) {
       if (timerID >= 0) {
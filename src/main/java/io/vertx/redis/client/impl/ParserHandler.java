@@ -15,7 +15,9 @@
  */
 package io.vertx.redis.client.impl;
 
+import io.vertx.core.buffer.Buffer;
 import io.vertx.redis.client.Response;
+import io.vertx.redis.client.ResponseDecoder;
 
 public interface ParserHandler {
 
@@ -24,4 +26,54 @@ public interface ParserHandler {
   void fatal(Throwable t);
 
   void fail(Throwable t);
+
+  /**
+   * Called when the header of a bulk reply, that is not part of a multi, has been parsed. Returning a stream switches
+   * the parser to streaming mode for this reply, the payload is then written to the stream as it arrives instead of
+   * being aggregated.
+   *
+   * @param length the length of the bulk payload.
+   * @return the stream for the payload or {@code null} to aggregate the reply.
+   */
+  default ReplyStream<Buffer> bulkStream(int length) {
+    return null;
+  }
+
+  /**
+   * Called when the header of a multi reply, that is not part of another multi, has been parsed. Returning a stream
+   * switches the parser to streaming mode for this reply, each element (nested multis are aggregated) is then written
+   * to the stream as soon as it is parsed.
+   *
+   * @param length the number of elements of the multi.
+   * @return the stream for the elements or {@code null} to aggregate the reply.
+   */
+  default ReplyStream<Response> multiStream(int length) {
+    return null;
+  }
+
+  /**
+   * Called when the parser has written the end of the stream returned by {@link #bulkStream(int)} or
+   * {@link #multiStream(int)}, nothing else will be written to it.
+   */
+  default void streamEnded() {
+  }
+
+  /**
+   * Called when a reply, that is not part of a multi, starts. Returning a decoder switches the parser to decoding mode
+   * for this reply, its parse events are then delivered to the decoder and {@link #decoded(Throwable)} is called
+   * instead of {@link #handle(Response)} once it is complete. Error replies are never decoded.
+   *
+   * @return the decoder for the reply or {@code null} to build the reply.
+   */
+  default ResponseDecoder<?> decoder() {
+    return null;
+  }
+
+  /**
+   * Called when a reply has been delivered to the decoder returned by {@link #decoder()}.
+   *
+   * @param failure the error nested in the reply or the exception thrown by the decoder, {@code null} on success.
+   */
+  default void decoded(Throwable failure) {
+  }
 }
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * <p>
+ * The Eclipse Public License is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * <p>
+ * The Apache License v2.0 is available at
+ * http://www.opensource.org/licenses/apache2.0.php
+ * <p>
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.client.impl;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.redis.client.Command;
+import io.vertx.redis.client.PreparedRequest;
+import io.vertx.redis.client.Request;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.vertx.redis.client.impl.RESPEncoder.numToBytes;
+
+public final class PreparedRequestImpl implements PreparedRequest {
+
+  private final Command cmd;
+  // the encoded request without the placeholder values, the value of the n-th placeholder goes between the n-th and
+  // the n+1-th fragment
+  private final byte[][] fragments;
+  private final int encodedLength;
+  // the constant arguments, null at the placeholders
+  private final byte[][] args;
+  // the placeholder index of each argument, -1 for the constants
+  private final int[] slots;
+
+  public PreparedRequestImpl(Command cmd, Object... args) {
+    this.cmd = cmd;
+    this.args = new byte[args.length][];
+    this.slots = new int[args.length];
+
+    final List<byte[]> fragments = new ArrayList<>();
+    final ByteBuf buffer = Unpooled.buffer();
+
+    RequestImpl.writeHeader(buffer, cmd, args.length);
+
+    for (int i = 0; i < args.length; i++) {
+      if (args[i] == PLACEHOLDER) {
+        slots[i] = fragments.size();
+        fragments.add(cut(buffer));
+        continue;
+      }
+
+      slots[i] = -1;
+      this.args[i] = toBytes(args[i]);
+      RequestImpl.writeBulk(buffer, this.args[i]);
+    }
+
+    fragments.add(cut(buffer));
+
+    this.fragments = fragments.toArray(new byte[0][]);
+    this.encodedLength = fragments.stream().mapToInt(fragment -> fragment.length).sum();
+  }
+
+  private static byte[] cut(ByteBuf buffer) {
+    final byte[] fragment = new byte[buffer.readableBytes()];
+    buffer.readBytes(fragment);
+    buffer.clear();
+    return fragment;
+  }
+
+  private static byte[] toBytes(Object arg) {
+    if (arg == null || arg instanceof byte[]) {
+      return (byte[]) arg;
+    }
+    if (arg instanceof String) {
+      return ((String) arg).getBytes(StandardCharsets.UTF_8);
+    }
+    if (arg instanceof Buffer) {
+      return ((Buffer) arg).getBytes();
+    }
+    if (arg instanceof Long || arg instanceof Integer || arg instanceof Short || arg instanceof Byte) {
+      return numToBytes(((Number) arg).longValue());
+    }
+    if (arg instanceof Boolean) {
+      return numToBytes((Boolean) arg ? 1L : 0L);
+    }
+    throw new IllegalArgumentException("Unsupported argument type: " + arg.getClass().getName());
+  }
+
+  @Override
+  public Command command() {
+    return cmd;
+  }
+
+  @Override
+  public int placeholders() {
+    return fragments.length - 1;
+  }
+
+  @Override
+  public Request request() {
+    return new RequestImpl(this);
+  }
+
+  /**
+   * @return the length of all the fragments.
+   */
+  int encodedLength() {
+    return encodedLength;
+  }
+
+  byte[] fragment(int index) {
+    return fragments[index];
+  }
+
+  /**
+   * @return the number of arguments, constants and placeholders.
+   */
+  int size() {
+    return args.length;
+  }
+
+  /**
+   * @return the placeholder index of the given argument, -1 for a constant.
+   */
+  int slot(int index) {
+    return slots[index];
+  }
+
+  byte[] arg(int index) {
+    return args[index];
+  }
+}
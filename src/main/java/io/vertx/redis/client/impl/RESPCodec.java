@@ -0,0 +1,338 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * <p>
+ * The Eclipse Public License is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * <p>
+ * The Apache License v2.0 is available at
+ * http://www.opensource.org/licenses/apache2.0.php
+ * <p>
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.client.impl;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.SingleThreadEventLoop;
+import io.netty.util.concurrent.EventExecutor;
+import io.vertx.core.Handler;
+import io.vertx.core.impl.ContextInternal;
+
+import java.util.List;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * The RESP codec, installed in the channel pipeline of the connection socket right before the Vert.x handler. Replies
+ * are parsed straight from the network buffers and requests are encoded straight into buffers of the given allocator
+ * (the channel allocator, direct when possible), the Vert.x socket only takes care of the connection life cycle.
+ *
+ * Flushes requested while a read is processed (e.g.: requests sent from reply callbacks) are held until the read is
+ * complete, so they reach the network in as few writes as possible.
+ *
+ * When writes are coalesced, the requests written during an event loop iteration are encoded to a single pending buffer
+ * which is flushed at the end of the iteration, or once it reaches {@link #COALESCE_BYTES}.
+ *
+ * A request that cannot be encoded is reported with its sequence number and left out, the requests written with it
+ * (coalesced or in the same batch) are still written and the connection stays usable.
+ */
+final class RESPCodec extends ChannelDuplexHandler {
+
+  static final String NAME = "redis";
+
+  // a pending buffer this large is flushed right away, there is little to gain from making it larger
+  static final int COALESCE_BYTES = 64 * 1024;
+  private static final int INITIAL_COALESCE_BYTES = 4 * 1024;
+
+  private final ContextInternal context;
+  // the allocator of the encoded requests, the channel may read with another one
+  private final ByteBufAllocator alloc;
+  private final Handler<ByteBuf> onRead;
+  private final boolean coalesce;
+  // called with the failure and the sequence number of a request that could not be encoded
+  private final ObjLongConsumer<Throwable> onEncodeFailure;
+  private final Runnable flushTask = this::flushPending;
+
+  private ChannelHandlerContext chctx;
+  private boolean reading;
+  private boolean needsFlush;
+  private boolean flushScheduled;
+  // the requests written since the last flush, when writes are coalesced
+  private ByteBuf pending;
+  // the number of requests written so far, which is also the sequence number of the next one
+  private long sequence;
+
+  RESPCodec(ContextInternal context, ByteBufAllocator alloc, RESPParser parser, boolean coalesce,
+            ObjLongConsumer<Throwable> onEncodeFailure) {
+    this.context = context;
+    this.alloc = alloc;
+    this.onRead = parser::handle;
+    this.coalesce = coalesce;
+    this.onEncodeFailure = onEncodeFailure;
+  }
+
+  @Override
+  public void handlerAdded(ChannelHandlerContext ctx) {
+    chctx = ctx;
+  }
+
+  /**
+   * Stops reading from the network, replies that have already been read are still parsed.
+   */
+  void pause() {
+    chctx.channel().config().setAutoRead(false);
+  }
+
+  void resume() {
+    chctx.channel().config().setAutoRead(true);
+  }
+
+  @Override
+  public void channelRead(ChannelHandlerContext ctx, Object msg) {
+    if (msg instanceof ByteBuf) {
+      reading = true;
+      // the callbacks run on the connection context, as they would from the socket handler
+      context.executeFromIO((ByteBuf) msg, onRead);
+    } else {
+      ctx.fireChannelRead(msg);
+    }
+  }
+
+  @Override
+  public void channelReadComplete(ChannelHandlerContext ctx) {
+    reading = false;
+    if (needsFlush) {
+      needsFlush = false;
+      writePending(ctx);
+      ctx.flush();
+    }
+    ctx.fireChannelReadComplete();
+  }
+
+  @Override
+  public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+    // only writes nobody waits for can be merged
+    if (coalesce && promise.isVoid() && coalesce(ctx, msg)) {
+      return;
+    }
+
+    // keep the order of the writes
+    writePending(ctx);
+
+    if (msg instanceof RequestImpl) {
+      final RequestImpl request = (RequestImpl) msg;
+      final ByteBuf encoded = request.hasReferences() ?
+        encode(ctx, request, alloc.compositeBuffer(Integer.MAX_VALUE)) :
+        encode(ctx, request);
+      if (encoded != null) {
+        ctx.write(encoded, promise);
+      } else if (!promise.isVoid()) {
+        // the failure was reported for the request, a void promise would report it again as a connection failure
+        promise.setFailure(new IllegalStateException("The request could not be encoded"));
+      }
+      return;
+    }
+
+    if (msg instanceof List) {
+      // a batch is encoded to a single buffer, or a composite when some argument is kept by reference
+      int length = 0;
+      boolean references = false;
+      for (Object request : (List<?>) msg) {
+        length += encodedLength((RequestImpl) request);
+        references |= ((RequestImpl) request).hasReferences();
+      }
+      if (references) {
+        final CompositeByteBuf buffer = alloc.compositeBuffer(Integer.MAX_VALUE);
+        for (Object request : (List<?>) msg) {
+          // each request is encoded on its own, a failure leaves nothing behind in the batch buffer
+          final ByteBuf encoded = ((RequestImpl) request).hasReferences() ?
+            encode(ctx, (RequestImpl) request, alloc.compositeBuffer(Integer.MAX_VALUE)) :
+            encode(ctx, (RequestImpl) request);
+          if (encoded != null) {
+            buffer.addComponent(true, encoded);
+          }
+        }
+        ctx.write(buffer, promise);
+      } else {
+        final ByteBuf buffer = alloc.ioBuffer(length);
+        for (Object request : (List<?>) msg) {
+          encode((RequestImpl) request, buffer);
+        }
+        ctx.write(buffer, promise);
+      }
+      return;
+    }
+
+    ctx.write(msg, promise);
+  }
+
+  /**
+   * Encodes a request to a buffer of its own.
+   *
+   * @return the buffer or null when the request could not be encoded, the failure has then been reported.
+   */
+  private ByteBuf encode(ChannelHandlerContext ctx, RequestImpl request) {
+    final long next = sequence++;
+    ByteBuf buffer = null;
+    try {
+      // the frame size is known up front so the buffer is allocated once and never grows
+      buffer = alloc.ioBuffer(request.encodedLength());
+      return request.encode(buffer);
+    } catch (RuntimeException e) {
+      if (buffer != null) {
+        buffer.release();
+      }
+      onEncodeFailure.accept(e, next);
+      return null;
+    }
+  }
+
+  /**
+   * Encodes a request with arguments kept by reference to the given composite.
+   *
+   * @return the composite or null when the request could not be encoded, the failure has then been reported.
+   */
+  private ByteBuf encode(ChannelHandlerContext ctx, RequestImpl request, CompositeByteBuf buffer) {
+    final long next = sequence++;
+    try {
+      request.encode(buffer, alloc);
+      return buffer;
+    } catch (RuntimeException e) {
+      buffer.release();
+      onEncodeFailure.accept(e, next);
+      return null;
+    }
+  }
+
+  /**
+   * Appends a request to a buffer holding the requests of other callers, a failure only rolls back the bytes of this
+   * request and is reported with its sequence number.
+   */
+  private void encode(RequestImpl request, ByteBuf buffer) {
+    final long next = sequence++;
+    final int mark = buffer.writerIndex();
+    try {
+      request.encode(buffer);
+    } catch (RuntimeException e) {
+      buffer.writerIndex(mark);
+      onEncodeFailure.accept(e, next);
+    }
+  }
+
+  private static int encodedLength(RequestImpl request) {
+    try {
+      return request.encodedLength();
+    } catch (RuntimeException e) {
+      // reported when the request is encoded
+      return 0;
+    }
+  }
+
+  /**
+   * Appends the requests to the pending buffer.
+   *
+   * @return false when the message cannot be coalesced.
+   */
+  private boolean coalesce(ChannelHandlerContext ctx, Object msg) {
+    int length = 0;
+
+    if (msg instanceof RequestImpl) {
+      if (((RequestImpl) msg).hasReferences()) {
+        return false;
+      }
+      length = encodedLength((RequestImpl) msg);
+    } else if (msg instanceof List) {
+      for (Object request : (List<?>) msg) {
+        if (((RequestImpl) request).hasReferences()) {
+          return false;
+        }
+        length += encodedLength((RequestImpl) request);
+      }
+    } else {
+      return false;
+    }
+
+    if (pending == null) {
+      pending = alloc.ioBuffer(Math.max(length, INITIAL_COALESCE_BYTES));
+    }
+
+    if (msg instanceof RequestImpl) {
+      encode((RequestImpl) msg, pending);
+    } else {
+      // the requests of a list may come from different callers, each one is encoded on its own
+      for (Object request : (List<?>) msg) {
+        encode((RequestImpl) request, pending);
+      }
+    }
+
+    if (pending.readableBytes() >= COALESCE_BYTES) {
+      writePending(ctx);
+      ctx.flush();
+    }
+
+    return true;
+  }
+
+  private void writePending(ChannelHandlerContext ctx) {
+    if (pending != null) {
+      final ByteBuf buffer = pending;
+      pending = null;
+      // a failed write is reported to the exception handler
+      ctx.write(buffer, ctx.voidPromise());
+    }
+  }
+
+  private void flushPending() {
+    flushScheduled = false;
+    if (reading) {
+      // the end of the read flushes
+      needsFlush = true;
+    } else {
+      writePending(chctx);
+      chctx.flush();
+    }
+  }
+
+  @Override
+  public void flush(ChannelHandlerContext ctx) {
+    if (reading) {
+      needsFlush = true;
+    } else if (coalesce) {
+      // flush once, after everything else the event loop has to run in this iteration
+      if (!flushScheduled) {
+        flushScheduled = true;
+        final EventExecutor executor = ctx.executor();
+        if (executor instanceof SingleThreadEventLoop) {
+          ((SingleThreadEventLoop) executor).executeAfterEventLoopIteration(flushTask);
+        } else {
+          executor.execute(flushTask);
+        }
+      }
+    } else {
+      ctx.flush();
+    }
+  }
+
+  @Override
+  public void close(ChannelHandlerContext ctx, ChannelPromise promise) {
+    // the requests written before the close still go out
+    writePending(ctx);
+    ctx.flush();
+    ctx.close(promise);
+  }
+
+  @Override
+  public void handlerRemoved(ChannelHandlerContext ctx) {
+    if (pending != null) {
+      pending.release();
+      pending = null;
+    }
+  }
+}
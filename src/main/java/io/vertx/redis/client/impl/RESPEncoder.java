@@ -15,43 +15,85 @@
  */
 package io.vertx.redis.client.impl;
 
-public final class RESPEncoder {
+import io.netty.buffer.ByteBuf;
 
-  // precache -1
-  private static final byte[] NEG_ONE = convert(-1);
+public final class RESPEncoder {
 
   // Cache 256 number conversions. That should cover a huge
   // percentage of numbers passed over the wire.
   private static final int NUM_MAP_LENGTH = 256;
   private static final byte[][] NUM_MAP = new byte[NUM_MAP_LENGTH][];
 
+  // 10^1 .. 10^18, the number of digits of a positive long is 1 + the number of these it is larger or equal to
+  private static final long[] POWERS_OF_TEN = new long[18];
+
+  // precache -1
+  private static final byte[] NEG_ONE;
+
   static {
+    long power = 1;
+    for (int i = 0; i < POWERS_OF_TEN.length; i++) {
+      power *= 10;
+      POWERS_OF_TEN[i] = power;
+    }
     for (int i = 0; i < NUM_MAP_LENGTH; i++) {
       NUM_MAP[i] = convert(i);
     }
+    NEG_ONE = convert(-1);
   }
 
   /**
    * Convert the given long value to a byte[]
    */
   private static byte[] convert(long value) {
-    boolean negative = value < 0;
-    // Checked javadoc: If the argument is equal to 10^n for integer n, then the result is n.
-    // Also, if negative, leave another slot for the sign.
-    long abs = Math.abs(value);
-    int index = (value == 0 ? 0 : (int) Math.log10(abs)) + (negative ? 2 : 1);
-    byte[] bytes = new byte[index];
-    // Put the sign in the slot we saved
-    if (negative) bytes[0] = '-';
-    long next = abs;
-    while ((next /= 10) > 0) {
-      bytes[--index] = (byte) ('0' + (abs % 10));
-      abs = next;
-    }
-    bytes[--index] = (byte) ('0' + abs);
+    final byte[] bytes = new byte[numLength(value)];
+    writeDigits(bytes, bytes.length, value);
     return bytes;
   }
 
+  /**
+   * Writes the digits (and sign) of the value backwards, ending right before the given index.
+   */
+  private static void writeDigits(byte[] bytes, int end, long value) {
+    // work with the negative value so Long.MIN_VALUE needs no special case
+    long next = value < 0 ? value : -value;
+    int index = end;
+    do {
+      bytes[--index] = (byte) ('0' - (next % 10));
+      next /= 10;
+    } while (next != 0);
+    if (value < 0) {
+      bytes[--index] = '-';
+    }
+  }
+
+  /**
+   * @return the number of bytes of the ASCII representation of the given value.
+   */
+  public static int numLength(long value) {
+    if (value < 0) {
+      // Long.MIN_VALUE cannot be negated, it has 19 digits
+      return value == Long.MIN_VALUE ? 20 : numLength(-value) + 1;
+    }
+    int length = 1;
+    while (length <= POWERS_OF_TEN.length && value >= POWERS_OF_TEN[length - 1]) {
+      length++;
+    }
+    return length;
+  }
+
+  /**
+   * @return true when all the characters of the string are ASCII, so it is encoded one byte per character.
+   */
+  public static boolean isAscii(String value) {
+    for (int i = 0; i < value.length(); i++) {
+      if (value.charAt(i) >= 0x80) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   // Optimized for the direct to ASCII bytes case
   // About 5x faster than using Long.toString.bytes
   public static byte[] numToBytes(long value) {
@@ -63,4 +105,29 @@ public final class RESPEncoder {
     }
     return convert(value);
   }
+
+  /**
+   * Writes the ASCII representation of the given value to the buffer, without any intermediate array.
+   */
+  public static void writeNum(ByteBuf buffer, long value) {
+    if (value >= 0 && value < NUM_MAP_LENGTH) {
+      buffer.writeBytes(NUM_MAP[(int) value]);
+      return;
+    }
+
+    final int length = numLength(value);
+    buffer.ensureWritable(length);
+
+    // work with the negative value so Long.MIN_VALUE needs no special case
+    long next = value < 0 ? value : -value;
+    int index = buffer.writerIndex() + length;
+    do {
+      buffer.setByte(--index, (int) ('0' - (next % 10)));
+      next /= 10;
+    } while (next != 0);
+    if (value < 0) {
+      buffer.setByte(--index, '-');
+    }
+    buffer.writerIndex(buffer.writerIndex() + length);
+  }
 }
@@ -15,173 +15,890 @@
  */
 package io.vertx.redis.client.impl;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
 import io.vertx.core.Handler;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.redis.client.Response;
+import io.vertx.redis.client.ResponseDecoder;
 import io.vertx.redis.client.impl.types.*;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 public final class RESPParser implements Handler<Buffer> {
 
   // 512Mb
   private static final long MAX_STRING_LENGTH = 536870912;
+  // the largest legal frame is a bulk string plus framing, give some slack for the pipelined replies that may be
+  // received in the same network chunks
+  private static final long MAX_BUFFERED_BYTES = MAX_STRING_LENGTH + 1024 * 1024;
+
+  /**
+   * The read allocator of the channels with zero copy or lazy values. Its chunks are never pooled and their memory is
+   * reclaimed by the garbage collector, so the parser keeps them without a copy and the values stay plain views that
+   * need no release: a chunk lives for as long as a value over it is referenced.
+   */
+  static final ByteBufAllocator VIEW_ALLOCATOR = new UnpooledByteBufAllocator(true, true, false);
+
+  // parser state machine states
+  private static final int TYPE = 0;
+  private static final int LINE = 1;
+  private static final int NUMBER = 2;
+  private static final int BULK = 3;
+  private static final int BULK_EOL = 4;
+  private static final int SYNC = 5;
+  private static final int BULK_STREAM = 6;
+
+  // ints per lazy index entry
+  private static final int LAZY_ENTRY = 3;
+
+  // frequent replies that are never allocated
+  private static final Response[] STATUS = { SimpleStringType.OK, SimpleStringType.PONG, SimpleStringType.QUEUED };
+  private static final Response[] ERRORS = {
+    ErrorType.NOSCRIPT, ErrorType.WRONGTYPE, ErrorType.NOAUTH, ErrorType.LOADING, ErrorType.EXECABORT,
+    ErrorType.CLUSTERDOWN, ErrorType.TRYAGAIN
+  };
 
   // the callback when a full response message has been decoded
   private final ParserHandler handler;
   // a composite buffer to allow buffer concatenation as if it was
-  // a long stream
-  private final ReadableBuffer buffer = new ReadableBuffer();
+  // a long stream without copying the network chunks
+  private final ReadableBuffer buffer;
   // arrays can have nested objects so we need to keep track of the
   // nesting while parsing
   private final ArrayStack stack;
+  // bulk strings are views over the receive buffer instead of copies
+  private final boolean zeroCopy;
+  // top level multis are not decoded, only the boundaries of their values are indexed
+  private final boolean lazy;
 
   RESPParser(ParserHandler handler, int maxStack) {
+    this(handler, maxStack, false, false);
+  }
+
+  RESPParser(ParserHandler handler, int maxStack, boolean zeroCopy, boolean lazy) {
+    this(handler, maxStack, zeroCopy, lazy, MAX_BUFFERED_BYTES);
+  }
+
+  RESPParser(ParserHandler handler, int maxStack, boolean zeroCopy, boolean lazy, long maxBufferedBytes) {
     this.handler = handler;
+    this.buffer = new ReadableBuffer(maxBufferedBytes);
     this.stack = new ArrayStack(maxStack);
+    this.zeroCopy = zeroCopy;
+    this.lazy = lazy;
+    this.openEntry = lazy ? new int[maxStack] : null;
+    this.openRemaining = lazy ? new int[maxStack] : null;
+    this.decodeRemaining = new int[maxStack];
+    this.decodeAttribute = new boolean[maxStack];
   }
 
-  // parser state machine state
-  private boolean eol = true;
-  private int bytesNeeded = 0;
+  // parser state machine state, all progress is kept across chunks so no byte is examined twice
+  private int state = TYPE;
+  private byte type;
+  // number parsing progress
+  private long number;
+  private boolean negative;
+  private boolean digits;
+  private boolean cr;
+  // bulk parsing progress
+  private int bytesNeeded;
+  // the stream receiving the current bulk payload when streaming
+  private ReplyStream<Buffer> stream;
+  // the stream receiving the elements of the current multi when streaming
+  private ReplyStream<Response> elements;
+  private int elementsNeeded;
+  // lazy frame progress, see LazyMultiType for the index layout
+  private int[] index;
+  private int entries;
+  // the multis of the frame still missing elements: their index entry and the number of missing elements
+  private final int[] openEntry;
+  private final int[] openRemaining;
+  private int depth;
+  // position in the frame of the value being parsed and whether a bulk value is waiting for its payload to be skipped
+  private int valueStart;
+  private boolean lazyBulk;
+  // the decoder of the current reply, its events are delivered instead of building the reply
+  private ResponseDecoder<?> decoder;
+  // the first failure of the decoder, the rest of the reply is still parsed (without events) to stay in sync
+  private Throwable decodeFailure;
+  // the multis of the decoded reply still missing elements and whether they are attributes
+  private final int[] decodeRemaining;
+  private final boolean[] decodeAttribute;
+  private int decodeDepth;
+  // events inside attributes are not delivered
+  private int attributes;
 
   @Override
   public void handle(Buffer chunk) {
     // add the chunk to the buffer
-    buffer.append(chunk);
+    try {
+      buffer.append(chunk);
+    } catch (RuntimeException e) {
+      handler.fatal(e);
+      return;
+    }
 
-    while (buffer.readableBytes() >= (eol ? 3 : bytesNeeded + 2)) {
-      // setup a rollback point
-      buffer.mark();
+    parse();
+    // the parser waits for more bytes, keep only what is still needed
+    buffer.compact();
+  }
 
-      // we need to locate the eol
-      if (eol) {
-        // this is the begin of a message
-        final byte type = buffer.readByte();
+  /**
+   * Parses a chunk read from the channel, the parser owns the chunk from here on.
+   */
+  void handle(ByteBuf chunk) {
+    try {
+      if (zeroCopy || lazy) {
+        // values are views over the chunks and outlive the parsing, so the chunks are left to the garbage collector
+        // and releasing the parsed components never frees the bytes of a view
+        if (chunk.alloc() == VIEW_ALLOCATOR && chunk.unwrap() == null) {
+          buffer.append(Unpooled.unreleasableBuffer(chunk), false);
+        } else {
+          // the chunk memory goes back to a pool once released, the values need a copy of their own
+          final ByteBuf copy = Unpooled.unreleasableBuffer(Unpooled.copiedBuffer(chunk));
+          chunk.release();
+          buffer.append(copy, false);
+        }
+      } else {
+        buffer.append(chunk, true);
+      }
+    } catch (RuntimeException e) {
+      handler.fatal(e);
+      return;
+    }
 
-        // locate the eol and handle as a C string
-        final int start = buffer.offset();
-        final int eol = buffer.findLineEnd();
+    parse();
+    buffer.compact();
+  }
 
-        // not found at all
-        if (eol == -1) {
-          buffer.reset();
-          break;
-        }
+  /**
+   * @return the number of bytes held by the receive buffer.
+   */
+  int retainedBytes() {
+    return buffer.retainedBytes();
+  }
 
-        // special case for sync messages or messages that report the wrong length
-        if (type == '\r' && (start == eol)) {
-          if (!buffer.skip(1)) {
-            buffer.reset();
-            break;
+  /**
+   * Releases the receive buffer, called when the connection is closed.
+   */
+  void release() {
+    buffer.release();
+  }
+
+  private void parse() {
+    while (buffer.readableBytes() > 0) {
+      switch (state) {
+        case TYPE:
+          if (depth > 0) {
+            valueStart = buffer.marked();
+          }
+          // this is the begin of a message
+          type = buffer.readByte();
+          // top level replies can be decoded by the request instead of being built, errors are always built
+          if (decoder == null && depth == 0 && elements == null && stack.empty() && decodable(type)) {
+            decoder = handler.decoder();
+          }
+
+          switch (type) {
+            case '+':
+            case '-':
+            // RESP3 double, big number, boolean and null
+            case ',':
+            case '(':
+            case '#':
+            case '_':
+              state = LINE;
+              break;
+            case ':':
+            case '$':
+            case '*':
+            // RESP3 blob error, verbatim string, map, set, push and attribute
+            case '!':
+            case '=':
+            case '%':
+            case '~':
+            case '>':
+            case '|':
+              number = 0;
+              negative = false;
+              digits = false;
+              cr = false;
+              state = NUMBER;
+              break;
+            case '\r':
+              // special case for sync messages or messages that report the wrong length
+              state = SYNC;
+              break;
+            default:
+              // notify
+              handler.fatal(ErrorType.create("ILLEGAL_STATE Unknown RESP type " + (char) type));
+              return;
+          }
+          break;
+        case SYNC:
+          if (buffer.readByte() != '\n') {
+            handler.fatal(ErrorType.create("ILLEGAL_STATE Unknown RESP type \r"));
+            return;
           }
           // skipped CRLF
-          continue;
-        }
+          state = TYPE;
+          break;
+        case LINE:
+          // locate the eol and handle as a C string
+          final int start = buffer.offset();
+          final int eol = buffer.findLineEnd();
 
-        switch (type) {
-          case '+':
-            final int length = eol - start;
-            // special case OK
-            if (length == 2 && buffer.getByte(start) == 'O' && buffer.getByte(start + 1) == 'K') {
-              handleResponse(SimpleStringType.OK);
+          // not found at all
+          if (eol == -1) {
+            return;
+          }
+
+          state = TYPE;
+
+          if (depth > 0) {
+            // only record where the value is, once it is consumed as it may complete the frame
+            buffer.skip(eol + 1 - start);
+            if (type == '_') {
+              lazyValue(type, 0, 0);
             } else {
-              handleResponse(SimpleStringType.create(buffer.readLine(eol, StandardCharsets.ISO_8859_1)));
+              lazyValue(type, valueStart + 1, eol - 1 - start);
             }
             break;
-          case '-':
-            handleResponse(ErrorType.create(buffer.readLine(eol, StandardCharsets.ISO_8859_1)));
+          }
+
+          if (decoder != null) {
+            decodeLine(start, eol);
             break;
-          case ':':
-          case '$':
-          case '*':
-            final long integer;
-
-            try {
-              integer = buffer.readLong(eol);
-            } catch (RuntimeException e) {
-              handler.fatal(e);
+          }
+
+          switch (type) {
+            case '+':
+              // special cases OK, PONG, QUEUED
+              final Response status = interned(STATUS, start, eol - 1 - start);
+              if (status != null) {
+                buffer.skip(eol + 1 - start);
+                handleResponse(status);
+              } else {
+                handleResponse(SimpleStringType.create(buffer.readLine(eol, StandardCharsets.ISO_8859_1)));
+              }
+              break;
+            case '-':
+              // special cases for errors without variable parts
+              final Response error = interned(ERRORS, start, eol - 1 - start);
+              if (error != null) {
+                buffer.skip(eol + 1 - start);
+                handleResponse(error);
+              } else {
+                handleResponse(ErrorType.create(buffer.readLine(eol, StandardCharsets.ISO_8859_1)));
+              }
+              break;
+            case '_':
+              buffer.skip(eol + 1 - start);
+              handleResponse(null);
+              break;
+            case '#':
+              final byte bool = buffer.getByte(start);
+              buffer.skip(eol + 1 - start);
+              handleResponse(BooleanType.create(bool == 't'));
+              break;
+            default:
+              try {
+                final String text = buffer.readLine(eol, StandardCharsets.ISO_8859_1);
+                handleResponse(type == ',' ? NumberType.createDouble(text) : NumberType.createBigNumber(text));
+              } catch (NumberFormatException e) {
+                handler.fatal(e);
+                return;
+              }
+              break;
+          }
+          break;
+        case NUMBER:
+          long integer;
+
+          try {
+            if (!readNumber()) {
+              // the number continues on the next chunk
               return;
             }
+            integer = number;
+          } catch (RuntimeException e) {
+            handler.fatal(e);
+            return;
+          }
 
-            switch (type) {
-              case ':':
+          state = TYPE;
+
+          switch (type) {
+            case ':':
+              if (depth > 0) {
+                // the digits are between the type and the \r\n
+                lazyValue(type, valueStart + 1, buffer.marked() - 2 - (valueStart + 1));
+              } else if (decoder != null) {
+                decodeInteger(integer);
+                decodedValue();
+              } else {
                 handleResponse(IntegerType.create(integer));
+              }
+              break;
+            case '$':
+            case '!':
+            case '=':
+              // redis strings cannot be longer than 512Mb
+              if (integer > MAX_STRING_LENGTH) {
+                handler.fatal(ErrorType.create("ILLEGAL_STATE Redis Bulk cannot be larger than 512MB"));
+                return;
+              }
+              // special cases
+              if (integer < 0) {
+                if (integer == -1L) {
+                  // this is a NULL string
+                  handleNull();
+                  break;
+                }
+                // other negative values are not valid
+                handler.fatal(ErrorType.create("ILLEGAL_STATE Redis Bulk cannot have negative length"));
+                return;
+              }
+              if (depth > 0) {
+                // only record where the value is, the payload is skipped with the trailing \r\n and the value is
+                // complete after that
+                lazyBulk = true;
+                bytesNeeded = (int) integer + 2;
+                state = BULK_EOL;
+                lazyAdd(type, buffer.marked(), (int) integer);
                 break;
-              case '$':
-                // redis strings cannot be longer than 512Mb
-                if (integer > MAX_STRING_LENGTH) {
-                  handler.fatal(ErrorType.create("ILLEGAL_STATE Redis Bulk cannot be larger than 512MB"));
-                  return;
+              }
+              if (decoder != null) {
+                if (integer == 0L) {
+                  decodeBulk(Buffer.buffer());
+                  // only the trailing \r\n remains
+                  bytesNeeded = 2;
+                  state = BULK_EOL;
+                } else {
+                  // safe cast
+                  bytesNeeded = (int) integer;
+                  state = BULK;
                 }
-                // special cases
-                if (integer < 0) {
-                  if (integer == -1L) {
-                    // this is a NULL string
-                    handleResponse(null);
-                    break;
-                  }
-                  // other negative values are not valid
-                  handler.fatal(ErrorType.create("ILLEGAL_STATE Redis Bulk cannot have negative length"));
-                  return;
+                break;
+              }
+              // top level replies can be streamed instead of aggregated
+              if (type == '$' && stack.empty() && elements == null) {
+                stream = handler.bulkStream((int) integer);
+              }
+              if (stream != null) {
+                if (integer == 0L) {
+                  endStream();
+                  // only the trailing \r\n remains
+                  bytesNeeded = 2;
+                  state = BULK_EOL;
+                } else {
+                  // safe cast
+                  bytesNeeded = (int) integer;
+                  state = BULK_STREAM;
                 }
+              } else if (integer == 0L) {
+                // special case as we don't need to allocate objects for this
+                handleResponse(type == '!' ? ErrorType.create("") : BulkType.EMPTY);
+                // only the trailing \r\n remains
+                bytesNeeded = 2;
+                state = BULK_EOL;
+              } else {
                 // safe cast
                 bytesNeeded = (int) integer;
                 // in this case we switch from eol parsing to fixed len parsing
-                this.eol = false;
+                state = BULK;
+              }
+              break;
+            case '%':
+            case '|':
+            case '*':
+            case '~':
+            case '>':
+              // special cases
+              if (integer < 0) {
+                if (integer == -1L) {
+                  // this is a NULL array
+                  handleNull();
+                  break;
+                }
+                // other negative values are not valid
+                handler.fatal(ErrorType.create("ILLEGAL_STATE Redis Multi cannot have negative length"));
+                return;
+              }
+              // maps and attributes are flattened as key, value pairs, the count is doubled once known to be valid
+              final boolean pairs = type == '%' || type == '|';
+              // redis multi cannot have more than 2GB elements
+              if (integer > (pairs ? Integer.MAX_VALUE / 2 : Integer.MAX_VALUE)) {
+                handler.fatal(ErrorType.create("ILLEGAL_STATE Redis Multi cannot be larger 2GB elements"));
+                return;
+              }
+              if (pairs) {
+                integer *= 2;
+              }
+              if (depth > 0) {
+                if (!lazyMulti(type, (int) integer)) {
+                  return;
+                }
                 break;
-              case '*':
-                // special cases
-                // redis multi cannot have more than 2GB elements
-                if (integer > Integer.MAX_VALUE) {
-                  handler.fatal(ErrorType.create("ILLEGAL_STATE Redis Multi cannot be larger 2GB elements"));
+              }
+              if (decoder != null) {
+                if (!decodeMulti(type, (int) integer)) {
                   return;
                 }
-                if (integer < 0) {
-                  if (integer == -1L) {
-                    // this is a NULL array
-                    handleResponse(null);
-                    break;
+                break;
+              }
+              // top level replies can be streamed instead of aggregated
+              if (type != '>' && type != '|' && stack.empty() && elements == null) {
+                elements = handler.multiStream((int) integer);
+                if (elements != null) {
+                  elementsNeeded = (int) integer;
+                  if (elementsNeeded == 0) {
+                    endElements();
                   }
-                  // other negative values are not valid
-                  handler.fatal(ErrorType.create("ILLEGAL_STATE Redis Multi cannot have negative length"));
-                }
-                // empty arrays can be cached and require no further processing
-                if (integer == 0L) {
-                  handleResponse(MultiType.EMPTY);
-                } else {
-                  // safe cast
-                  handleResponse(MultiType.create((int) integer), true);
+                  break;
                 }
+              }
+              // top level multis can be indexed instead of decoded
+              if (lazy && integer > 0 && type != '>' && type != '|' && stack.empty() && elements == null) {
+                // the frame is retained from here on, the header is not needed
+                buffer.mark();
+                index = new int[LAZY_ENTRY * ((int) Math.min(integer, 1024) + 1)];
+                entries = 0;
+                lazyMulti(type, (int) integer);
                 break;
-            }
-            break;
-          default:
-            // notify
-            handler.fatal(ErrorType.create("ILLEGAL_STATE Unknown RESP type " + (char) type));
+              }
+              // empty arrays can be cached and require no further processing
+              if (integer == 0L) {
+                switch (type) {
+                  case '|':
+                    // an empty attribute describes nothing
+                    break;
+                  case '%':
+                    handleResponse(MultiType.EMPTY_MAP);
+                    break;
+                  case '>':
+                    handleResponse(MultiType.createPush(0));
+                    break;
+                  default:
+                    handleResponse(MultiType.EMPTY);
+                }
+              } else {
+                // safe cast
+                switch (type) {
+                  case '%':
+                    handleResponse(MultiType.createMap((int) integer / 2), true);
+                    break;
+                  case '|':
+                    handleResponse(MultiType.createAttribute((int) integer / 2), true);
+                    break;
+                  case '>':
+                    handleResponse(MultiType.createPush((int) integer), true);
+                    break;
+                  default:
+                    handleResponse(MultiType.create((int) integer), true);
+                }
+              }
+              break;
+          }
+          break;
+        case BULK:
+          // wait until the whole payload is available, the composite buffer does not copy while accumulating
+          if (buffer.readableBytes() < bytesNeeded) {
             return;
-        }
-      } else {
-        // empty string
-        if (bytesNeeded == 0) {
-          // special case as we don't need to allocate objects for this
-          handleResponse(BulkType.EMPTY);
-        } else {
+          }
+          if (decoder != null) {
+            // the value is only used during the event, a view is enough
+            final Buffer value = buffer.readSlice(bytesNeeded);
+            bytesNeeded = 2;
+            state = BULK_EOL;
+            decodeBulk(value);
+            break;
+          }
           // fixed length parsing && read the required bytes
-          handleResponse(BulkType.create(buffer.readBytes(bytesNeeded)));
+          final Buffer bulk = zeroCopy ? buffer.readSlice(bytesNeeded) : buffer.readBytes(bytesNeeded);
+          // only the trailing \r\n remains
+          bytesNeeded = 2;
+          state = BULK_EOL;
+          switch (type) {
+            case '!':
+              handleResponse(ErrorType.create(bulk.toString(StandardCharsets.ISO_8859_1)));
+              break;
+            case '=':
+              // verbatim strings start with the 3 chars format and a colon (e.g.: txt:)
+              handleResponse(BulkType.create(bulk.length() >= 4 ? bulk.slice(4, bulk.length()) : bulk));
+              break;
+            default:
+              handleResponse(BulkType.create(bulk));
+          }
+          break;
+        case BULK_STREAM:
+          // hand over whatever is available, the stream takes care of the back pressure
+          final Buffer part = buffer.readChunk(bytesNeeded);
+          bytesNeeded -= part.length();
+          stream.write(part);
+          if (bytesNeeded == 0) {
+            endStream();
+            // only the trailing \r\n remains
+            bytesNeeded = 2;
+            state = BULK_EOL;
+          }
+          break;
+        case BULK_EOL:
+          // clean up the buffer, skip the last \r\n even if it arrives split
+          bytesNeeded -= buffer.skip(bytesNeeded);
+          if (bytesNeeded == 0) {
+            // switch back to eol parsing
+            state = TYPE;
+            if (lazyBulk) {
+              lazyBulk = false;
+              lazyCompleted();
+            }
+          }
+          break;
+      }
+    }
+  }
+
+  private void endStream() {
+    stream.end();
+    stream = null;
+    handler.streamEnded();
+  }
+
+  private void endElements() {
+    elements.end();
+    elements = null;
+    handler.streamEnded();
+  }
+
+  /**
+   * Parses the digits of the current number, the progress is kept in the parser state.
+   *
+   * @return true when the number is complete (the CRLF has been consumed).
+   */
+  private boolean readNumber() {
+    while (buffer.readableBytes() > 0) {
+      final byte b = buffer.readByte();
+
+      if (cr) {
+        if (b != '\n') {
+          throw new IllegalStateException("Not a line feed " + (char) b);
+        }
+        if (!negative) {
+          if (number == Long.MIN_VALUE) {
+            throw new ArithmeticException("Overflow");
+          }
+          number = -number;
+        }
+        return true;
+      }
+
+      if (b == '\r') {
+        cr = true;
+        continue;
+      }
+
+      if (b == '-' && !digits && !negative) {
+        negative = true;
+        continue;
+      }
+
+      final int digit = b - '0';
+
+      if (digit < 0 || digit > 9) {
+        throw new IllegalStateException("Not a digit " + (char) b);
+      }
+
+      // accumulate as a negative value so Long.MIN_VALUE can be represented
+      if (number < (Long.MIN_VALUE + digit) / 10) {
+        throw new ArithmeticException("Overflow");
+      }
+      number = number * 10 - digit;
+      digits = true;
+    }
+
+    return false;
+  }
+
+  /**
+   * Looks up a line in the given singletons, the bytes are compared in place so nothing is allocated.
+   */
+  private Response interned(Response[] candidates, int start, int length) {
+    for (Response candidate : candidates) {
+      final String text = candidate.toString();
+      if (text.length() == length && buffer.matches(start, text)) {
+        return candidate;
+      }
+    }
+    return null;
+  }
+
+  private void handleNull() {
+    if (depth > 0) {
+      lazyValue((byte) '_', 0, 0);
+    } else if (decoder != null) {
+      decodeNull();
+      decodedValue();
+    } else {
+      handleResponse(null);
+    }
+  }
+
+  /**
+   * Records a complete value of the lazy frame.
+   */
+  private void lazyValue(byte type, int offset, int length) {
+    lazyAdd(type, offset, length);
+    lazyCompleted();
+  }
+
+  /**
+   * Records a multi of the lazy frame, multis with elements stay open until all their elements are parsed.
+   *
+   * @return false if the nesting limit is reached.
+   */
+  private boolean lazyMulti(byte type, int size) {
+    if (size == 0) {
+      // an empty attribute describes nothing
+      if (type != '|') {
+        lazyValue(type, 0, 0);
+      }
+      return true;
+    }
+    if (depth == openEntry.length) {
+      handler.fatal(ErrorType.create("ILLEGAL_STATE Multi nesting is deeper than " + openEntry.length));
+      return false;
+    }
+    openEntry[depth] = entries;
+    openRemaining[depth] = size;
+    depth++;
+    // the number of index ints used by the nested values is known once the multi is complete
+    lazyAdd(type, size, 0);
+    return true;
+  }
+
+  private void lazyAdd(byte type, int a, int b) {
+    if (entries + LAZY_ENTRY > index.length) {
+      index = Arrays.copyOf(index, index.length * 2);
+    }
+    index[entries++] = type;
+    index[entries++] = a;
+    index[entries++] = b;
+  }
+
+  private void lazyCompleted() {
+    // a value is complete, which may complete the multis it is nested in
+    while (--openRemaining[depth - 1] == 0) {
+      final int entry = openEntry[--depth];
+
+      if (index[entry] == '|') {
+        // attributes describe the next value but are not one
+        entries = entry;
+        return;
+      }
+
+      index[entry + 2] = entries - entry - LAZY_ENTRY;
+
+      if (depth == 0) {
+        // the whole frame is available
+        final int[] frameIndex = index;
+        index = null;
+        handleResponse(LazyMultiType.create(buffer.readMarked(), frameIndex));
+        return;
+      }
+    }
+  }
+
+  private static boolean decodable(byte type) {
+    switch (type) {
+      case '-':
+      case '!':
+      case '>':
+      case '|':
+      case '\r':
+        return false;
+      default:
+        return true;
+    }
+  }
+
+  private void decodeLine(int start, int eol) {
+    switch (type) {
+      case '-':
+        decodeError(buffer.readLine(eol, StandardCharsets.ISO_8859_1));
+        break;
+      case '_':
+        buffer.skip(eol + 1 - start);
+        decodeNull();
+        break;
+      case '#':
+        final byte bool = buffer.getByte(start);
+        buffer.skip(eol + 1 - start);
+        if (decoding()) {
+          try {
+            decoder.onBoolean(bool == 't');
+          } catch (RuntimeException e) {
+            decodeFailure = e;
+          }
+        }
+        break;
+      case ',':
+        final String text = buffer.readLine(eol, StandardCharsets.ISO_8859_1);
+        if (decoding()) {
+          try {
+            decoder.onDouble(NumberType.createDouble(text).toDouble());
+          } catch (RuntimeException e) {
+            decodeFailure = e;
+          }
         }
-        // clean up the buffer, skip the last \r\n
-        if (buffer.skip(2)) {
-          // switch back to eol parsing
-          eol = true;
+        break;
+      default:
+        // simple strings and big numbers
+        final Buffer line = buffer.readSlice(eol - 1 - start);
+        buffer.skip(2);
+        decodeString(line);
+        break;
+    }
+    decodedValue();
+  }
+
+  private void decodeBulk(Buffer value) {
+    switch (type) {
+      case '!':
+        decodeError(value.toString(StandardCharsets.ISO_8859_1));
+        break;
+      case '=':
+        // verbatim strings start with the 3 chars format and a colon (e.g.: txt:)
+        decodeString(value.length() >= 4 ? value.slice(4, value.length()) : value);
+        break;
+      default:
+        decodeString(value);
+    }
+    decodedValue();
+  }
+
+  /**
+   * Delivers the start of a multi, multis with elements stay open until all their elements are parsed.
+   *
+   * @return false if the nesting limit is reached.
+   */
+  private boolean decodeMulti(byte type, int size) {
+    if (type == '|') {
+      // an empty attribute describes nothing
+      if (size > 0) {
+        if (!decodeOpen(size, true)) {
+          return false;
+        }
+        attributes++;
+      }
+      return true;
+    }
+    if (decoding()) {
+      try {
+        if (type == '%') {
+          decoder.onMapStart(size / 2);
         } else {
-          // operation failed
-          buffer.reset();
+          decoder.onArrayStart(size);
         }
+      } catch (RuntimeException e) {
+        decodeFailure = e;
+      }
+    }
+    if (size == 0) {
+      decodeEnd();
+      decodedValue();
+      return true;
+    }
+    return decodeOpen(size, false);
+  }
+
+  private boolean decodeOpen(int size, boolean attribute) {
+    if (decodeDepth == decodeRemaining.length) {
+      handler.fatal(ErrorType.create("ILLEGAL_STATE Multi nesting is deeper than " + decodeRemaining.length));
+      return false;
+    }
+    decodeRemaining[decodeDepth] = size;
+    decodeAttribute[decodeDepth] = attribute;
+    decodeDepth++;
+    return true;
+  }
+
+  /**
+   * A value of the decoded reply is complete, which may complete the multis it is nested in or the reply itself.
+   */
+  private void decodedValue() {
+    while (decodeDepth > 0) {
+      if (--decodeRemaining[decodeDepth - 1] != 0) {
+        return;
+      }
+      if (decodeAttribute[--decodeDepth]) {
+        // attributes describe the next value but are not one
+        attributes--;
+        return;
+      }
+      decodeEnd();
+    }
+
+    final Throwable failure = decodeFailure;
+    decoder = null;
+    decodeFailure = null;
+    handler.decoded(failure);
+  }
+
+  private boolean decoding() {
+    return decodeFailure == null && attributes == 0;
+  }
+
+  private void decodeString(Buffer value) {
+    if (decoding()) {
+      try {
+        decoder.onString(value);
+      } catch (RuntimeException e) {
+        decodeFailure = e;
       }
     }
   }
 
+  private void decodeInteger(long value) {
+    if (decoding()) {
+      try {
+        decoder.onInteger(value);
+      } catch (RuntimeException e) {
+        decodeFailure = e;
+      }
+    }
+  }
+
+  private void decodeNull() {
+    if (decoding()) {
+      try {
+        decoder.onNull();
+      } catch (RuntimeException e) {
+        decodeFailure = e;
+      }
+    }
+  }
+
+  private void decodeEnd() {
+    if (decoding()) {
+      try {
+        decoder.onArrayEnd();
+      } catch (RuntimeException e) {
+        decodeFailure = e;
+      }
+    }
+  }
+
+  private void decodeError(String message) {
+    // an error nested in the reply (e.g.: EXEC) fails the whole request
+    if (decoding()) {
+      decodeFailure = ErrorType.create(message);
+    }
+  }
+
   private void handleResponse(Response response) {
     handleResponse(response, false);
   }
@@ -190,8 +907,10 @@ public final class RESPParser implements Handler<Buffer> {
     final MultiType multi = stack.peek();
     // verify if there are multi's on the stack
     if (multi != null) {
-      // add the parsed response to the multi
-      multi.add(response);
+      // add the parsed response to the multi, attributes describe the next element but are not one
+      if (!isAttribute(response)) {
+        multi.add(response);
+      }
       // push the given response to the stack
       if (push) {
         stack.push(response);
@@ -206,7 +925,9 @@ public final class RESPParser implements Handler<Buffer> {
           // if the stack is empty or not
           if (stack.empty()) {
             // handle the multi to the listener
-            handler.handle(m);
+            if (!m.isAttribute()) {
+              emit(m);
+            }
             return;
           }
           // peek into the next entry
@@ -225,8 +946,24 @@ public final class RESPParser implements Handler<Buffer> {
         // there's nothing on the stack
         // so we can handle the response directly
         // to the listener
-        handler.handle(response);
+        emit(response);
+      }
+    }
+  }
+
+  private static boolean isAttribute(Response response) {
+    return response instanceof MultiType && ((MultiType) response).isAttribute();
+  }
+
+  private void emit(Response response) {
+    if (elements != null) {
+      // the response is an element of the multi being streamed
+      elements.write(response);
+      if (--elementsNeeded == 0) {
+        endElements();
       }
+    } else {
+      handler.handle(response);
     }
   }
 }
@@ -15,157 +15,303 @@
  */
 package io.vertx.redis.client.impl;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.util.ByteProcessor;
 import io.vertx.core.buffer.Buffer;
 
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 
 final class ReadableBuffer {
 
-  // limit of integer parsing before overflowing
-  private static final long MAX_INTEGER_DIV_10 = Long.MAX_VALUE / 10;
-  private static final int MARK_WATERMARK = 4 * 1024 * 1024;
+  // when more than this is retained but only a small tail is still needed, the tail is moved to a pooled buffer so the
+  // network chunks of a burst are not kept for as long as the connection is idle
+  private static final int COMPACT_BYTES = 16 * 1024;
+  // the array of components never shrinks, a composite that held more components than this is replaced once empty
+  private static final int MAX_IDLE_COMPONENTS = 16;
+
+  // network chunks are kept as components of a composite buffer, this means that appending never copies, the bytes
+  // are copied at most once when a response value is extracted
+  private CompositeByteBuf buffer = Unpooled.compositeBuffer(Integer.MAX_VALUE);
+  // max number of bytes allowed to be buffered waiting to be parsed
+  private final long maxBufferedBytes;
+  // the bytes before this index live in a pooled buffer which is recycled once parsed, they are never handed out as
+  // views
+  private int pooledEnd;
+  // the chunks are pooled buffers owned by this buffer, no byte is ever handed out as a view
+  private boolean pooledChunks;
+  private int maxComponents;
+  // bytes held by the buffer, read from other threads for monitoring
+  private volatile int retained;
 
-  private Buffer buffer;
   private int offset;
 
-  private int mark;
+  // the read offset of the line being scanned and how far it has been scanned for a line feed
+  private int lineStart = -1;
+  private int scanned;
+  // start of the bytes that must be retained even after being parsed, -1 when there is none
+  private int mark = -1;
 
-  void append(Buffer chunk) {
-    // either the buffer is null or all read
-    if (buffer == null || Math.min(mark, offset) == buffer.length()) {
-      buffer = chunk;
-      offset = 0;
-      return;
-    }
-
-    // slice the buffer discarding the read bytes
-    if (
-      // the offset (read operations) must be further than the last checkpoint
-      offset >= mark &&
-      // there must be already read more than water mark
-      mark > MARK_WATERMARK &&
-      // and there are more bytes to read already
-      buffer.length() > mark) {
-
-      // clean up when there's too much data
-      buffer = buffer.getBuffer(mark, buffer.length());
-      offset -= mark;
-      mark = 0;
-    }
+  ReadableBuffer(long maxBufferedBytes) {
+    this.maxBufferedBytes = maxBufferedBytes;
+  }
 
-    buffer.appendBuffer(chunk);
+  void append(Buffer chunk) {
+    // the composite releases its components once parsed, it only gives up its own reference to the caller's bytes
+    append(chunk.getByteBuf().retain(), false);
   }
 
-  int findLineEnd() {
-    int index = -1;
-    for (int i = offset; i < buffer.length(); i++) {
-      if (buffer.getByte(i) == '\n') {
-        index = i;
-        break;
-      }
+  /**
+   * Appends a chunk, the chunk is owned by this buffer from here on and is released once parsed, a pooled chunk is
+   * recycled so its bytes are never handed out as views.
+   */
+  void append(ByteBuf chunk, boolean pooled) {
+    discard();
+
+    if ((long) readableBytes() + chunk.readableBytes() > maxBufferedBytes) {
+      // the chunk is owned by this buffer either way
+      chunk.release();
+      throw new IllegalStateException("Redis receive buffer cannot be larger than " + maxBufferedBytes + " bytes");
     }
 
-    return (index > 0 && buffer.getByte(index - 1) == '\r') ? index : -1;
+    pooledChunks |= pooled;
+    buffer.addComponent(true, chunk);
+    maxComponents = Math.max(maxComponents, buffer.numComponents());
+    retained = buffer.writerIndex();
   }
 
-  long readLong(int end) {
-    long value = 0;
+  /**
+   * Releases the memory that is no longer needed, called once all the available bytes have been parsed.
+   */
+  void compact() {
+    discard();
 
-    boolean negative = buffer.getByte(this.offset) == '-';
+    final int keep = mark != -1 ? mark : offset;
+    final int length = buffer.writerIndex() - keep;
 
-    int offset = negative ? this.offset + 1 : this.offset;
-
-    while (offset < end - 1) {
-      if (value > MAX_INTEGER_DIV_10) {
-        throw new ArithmeticException("Overflow");
+    if (length == 0) {
+      if (maxComponents > MAX_IDLE_COMPONENTS) {
+        rebase(Unpooled.compositeBuffer(Integer.MAX_VALUE), keep);
       }
+    } else if (buffer.writerIndex() > COMPACT_BYTES && length <= buffer.writerIndex() / 4) {
+      // only the start of the next reply is needed, the chunks it was received with are not
+      final ByteBuf tail = PooledByteBufAllocator.DEFAULT.heapBuffer(length, length);
+      buffer.getBytes(keep, tail, length);
+      rebase(Unpooled.compositeBuffer(Integer.MAX_VALUE).addComponent(true, tail), keep);
+      pooledEnd = length;
+    }
 
-      int digit = buffer.getByte(offset++) - '0';
+    retained = buffer.writerIndex();
+  }
 
-      if (digit < 0 || digit > 9) {
-        throw new IllegalStateException("Not a digit " + (char) digit);
-      }
+  /**
+   * Releases all the memory, the buffer is empty afterwards.
+   */
+  void release() {
+    buffer.release();
+    buffer = Unpooled.compositeBuffer(Integer.MAX_VALUE);
+    offset = 0;
+    mark = -1;
+    lineStart = -1;
+    pooledEnd = 0;
+    maxComponents = 0;
+    retained = 0;
+  }
+
+  /**
+   * @return the number of bytes held by the buffer, parsed or not.
+   */
+  int retainedBytes() {
+    return retained;
+  }
 
-      value = value * 10 - digit;
+  private void discard() {
+    // drop the components that have already been parsed, bytes are never read twice so everything before the
+    // offset (or the mark) can go
+    final int keep = mark != -1 ? mark : offset;
+    if (keep > 0) {
+      buffer.readerIndex(keep);
+      buffer.discardReadComponents();
+      shift(keep - buffer.readerIndex());
     }
-    if (!negative) value = -value;
-    this.offset = end + 1;
-    return value;
   }
 
-  Buffer readLine() {
-    return readLine(findLineEnd());
+  /**
+   * Replaces the buffer with one holding its bytes from the given index on.
+   */
+  private void rebase(CompositeByteBuf composite, int from) {
+    // the previous pooled tail (if any) is recycled with the components
+    buffer.release();
+    buffer = composite;
+    shift(from);
+    pooledEnd = 0;
+    maxComponents = buffer.numComponents();
   }
 
-  String readLine(Charset charset) {
-    return readLine(findLineEnd(), charset);
+  private void shift(int count) {
+    offset -= count;
+    pooledEnd = Math.max(0, pooledEnd - count);
+    if (mark != -1) {
+      mark -= count;
+    }
+    if (lineStart != -1) {
+      lineStart -= count;
+      scanned -= count;
+    }
   }
 
-  private Buffer readLine(int end) {
-    Buffer bytes = null;
-    if (end >= offset) {
-      bytes = buffer.getBuffer(offset, end - 1);
-      offset = end + 1;
+  int findLineEnd() {
+    // when the line is still the one that was scanned before, continue from where the previous scan stopped
+    final int from = lineStart == offset ? scanned : offset;
+    final int index = buffer.forEachByte(from, buffer.writerIndex() - from, ByteProcessor.FIND_LF);
+
+    if (index == -1) {
+      // remember the scan progress for when the next chunk arrives
+      lineStart = offset;
+      scanned = buffer.writerIndex();
+      return -1;
     }
-    return bytes;
+
+    lineStart = -1;
+    return (index > 0 && buffer.getByte(index - 1) == '\r') ? index : -1;
   }
 
   String readLine(int end, Charset charset) {
-    byte[] bytes = null;
+    String line = null;
     if (end >= offset) {
-      bytes = buffer.getBytes(offset, end - 1);
+      line = buffer.toString(offset, end - 1 - offset, charset);
       offset = end + 1;
     }
-    if (bytes != null) {
-      return new String(bytes, charset);
-    }
-    return null;
+    return line;
   }
 
   Buffer readBytes(int count) {
     Buffer bytes = null;
-    if (buffer.length() - offset >= count) {
-      bytes = buffer.getBuffer(offset, offset + count);
+    if (buffer.writerIndex() - offset >= count) {
+      bytes = Buffer.buffer(copy(count));
+    }
+    return bytes;
+  }
+
+  Buffer readSlice(int count) {
+    Buffer bytes = null;
+    if (buffer.writerIndex() - offset >= count) {
+      bytes = Buffer.buffer(view(offset, count));
       offset += count;
     }
     return bytes;
   }
 
+  /**
+   * Retain all bytes from the current offset on, until they are read with {@link #readMarked()}.
+   */
+  void mark() {
+    mark = offset;
+  }
+
+  /**
+   * @return the current offset relative to the mark.
+   */
+  int marked() {
+    return offset - mark;
+  }
+
+  /**
+   * Reads all the bytes between the mark and the current offset and clears the mark.
+   */
+  Buffer readMarked() {
+    final Buffer bytes = Buffer.buffer(view(mark, offset - mark));
+    mark = -1;
+    return bytes;
+  }
+
+  private ByteBuf view(int from, int count) {
+    if (pooledChunks || from < pooledEnd) {
+      // pooled bytes are recycled, they must be copied
+      final ByteBuf bytes = Unpooled.buffer(count);
+      buffer.getBytes(from, bytes, count);
+      return bytes.asReadOnly();
+    }
+
+    final int index = buffer.toComponentIndex(from);
+    final int start = from - buffer.toByteIndex(index);
+    final ByteBuf component = buffer.component(index);
+
+    if (component.readableBytes() - start >= count) {
+      // a read only view, the bytes are shared with the network chunk
+      return component.slice(component.readerIndex() + start, count).asReadOnly();
+    }
+    // the value spans several network chunks, it must be copied into a contiguous buffer
+    final ByteBuf bytes = Unpooled.buffer(count);
+    buffer.getBytes(from, bytes, count);
+    return bytes.asReadOnly();
+  }
+
+  Buffer readChunk(int max) {
+    if (pooledChunks || offset < pooledEnd) {
+      // pooled bytes are recycled, they must be copied
+      final ByteBuf bytes = Unpooled.buffer(Math.min(max, pooledChunks ? readableBytes() : pooledEnd - offset));
+      buffer.getBytes(offset, bytes);
+      offset += bytes.readableBytes();
+      return Buffer.buffer(bytes.asReadOnly());
+    }
+
+    final int index = buffer.toComponentIndex(offset);
+    final int start = offset - buffer.toByteIndex(index);
+    final ByteBuf component = buffer.component(index);
+    // never cross a component boundary so the chunk is always a view
+    final int count = Math.min(max, component.readableBytes() - start);
+
+    offset += count;
+    return Buffer.buffer(component.slice(component.readerIndex() + start, count).asReadOnly());
+  }
+
+  private ByteBuf copy(int count) {
+    final ByteBuf bytes = Unpooled.buffer(count);
+    buffer.getBytes(offset, bytes, count);
+    offset += count;
+    return bytes;
+  }
+
   byte readByte() {
     return buffer.getByte(offset++);
   }
 
+  /**
+   * Compares the bytes at the given index with an ASCII text.
+   */
+  boolean matches(int index, String text) {
+    for (int i = 0; i < text.length(); i++) {
+      if (buffer.getByte(index + i) != text.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   byte getByte(int index) {
     return buffer.getByte(index);
   }
 
   int readableBytes() {
-    return buffer.length() - offset;
-  }
-
-  void mark() {
-    mark = offset;
-  }
-
-  void reset() {
-    offset = mark;
+    return buffer.writerIndex() - offset;
   }
 
   int offset() {
     return offset;
   }
 
-  boolean skip(int count) {
-    if (readableBytes() >= count) {
-      offset += count;
-      return true;
-    }
-
-    return false;
+  int skip(int count) {
+    final int skipped = Math.min(count, readableBytes());
+    offset += skipped;
+    return skipped;
   }
 
   @Override
   public String toString() {
-    return buffer != null ? buffer.toString() : "null";
+    return buffer.toString(0, buffer.writerIndex(), StandardCharsets.UTF_8);
   }
 }
@@ -30,7 +30,7 @@ public class RedisAPIImpl implements RedisAPI {
   @Override
   public Future<Response> send(Command cmd, String... args) {
     final Promise<Response> promise = Promise.promise();
-    final Request req = Request.cmd(cmd);
+    final Request req = new RequestImpl(cmd, args != null ? args.length : 0);
 
     if (args != null) {
       for (String o : args) {
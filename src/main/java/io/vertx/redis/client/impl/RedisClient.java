@@ -18,14 +18,22 @@ package io.vertx.redis.client.impl;
 import io.vertx.core.*;
 import io.vertx.redis.client.*;
 
+import java.util.List;
+
 public class RedisClient implements Redis {
 
   private final ConnectionManager connectionManager;
   private final String defaultAddress;
+  private final SharedConnections sharedConnections;
 
   public RedisClient(Vertx vertx, RedisOptions options) {
     this.connectionManager = new ConnectionManager(vertx, options);
     this.defaultAddress = options.getEndpoint();
+    // the shared and dedicated connections are not pooled, they never wait for the connections checked out by the user
+    this.sharedConnections = new SharedConnections(
+      options.getSharedConnections(),
+      onConnect -> connectionManager.getUnpooledConnection(defaultAddress, null, onConnect),
+      onConnect -> connectionManager.getUnpooledConnection(defaultAddress, null, onConnect));
   }
 
   @Override
@@ -34,8 +42,21 @@ public class RedisClient implements Redis {
     return this;
   }
 
+  @Override
+  public Redis send(Request command, Handler<AsyncResult<Response>> onSend) {
+    sharedConnections.send(command, onSend);
+    return this;
+  }
+
+  @Override
+  public Redis batch(List<Request> commands, Handler<AsyncResult<List<Response>>> onSend) {
+    sharedConnections.batch(commands, onSend);
+    return this;
+  }
+
   @Override
   public void close() {
+    sharedConnections.close();
     connectionManager.close();
   }
 }
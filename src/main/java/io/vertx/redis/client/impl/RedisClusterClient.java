@@ -102,6 +102,7 @@ public class RedisClusterClient implements Redis {
   private final Vertx vertx;
   private final ConnectionManager connectionManager;
   private final RedisOptions options;
+  private final SharedConnections sharedConnections;
 
   public RedisClusterClient(Vertx vertx, RedisOptions options) {
     this.vertx = vertx;
@@ -114,26 +115,32 @@ public class RedisClusterClient implements Redis {
     }
     this.connectionManager = new ConnectionManager(vertx, options);
     this.connectionManager.start();
+    // a shared cluster connection holds a connection to every node, outside of the pool so that they never wait for
+    // the connections checked out by the user
+    this.sharedConnections = new SharedConnections(
+      options.getSharedConnections(),
+      onConnect -> connect(options.getEndpoints(), 0, false, onConnect),
+      onConnect -> connect(options.getEndpoints(), 0, false, onConnect));
   }
 
   @Override
   public Redis connect(Handler<AsyncResult<RedisConnection>> onConnect) {
     // attempt to load the slots from the first good endpoint
-    connect(options.getEndpoints(), 0, onConnect);
+    connect(options.getEndpoints(), 0, true, onConnect);
     return this;
   }
 
-  private void connect(List<String> endpoints, int index, Handler<AsyncResult<RedisConnection>> onConnect) {
+  private void connect(List<String> endpoints, int index, boolean pooled, Handler<AsyncResult<RedisConnection>> onConnect) {
     if (index >= endpoints.size()) {
       // stop condition
       onConnect.handle(Future.failedFuture("Cannot connect to any of the provided endpoints"));
       return;
     }
 
-    connectionManager.getConnection(endpoints.get(index), RedisSlaves.NEVER != options.getUseSlave() ? cmd(READONLY) : null, getConnection -> {
+    getConnection(endpoints.get(index), pooled, getConnection -> {
       if (getConnection.failed()) {
         // failed try with the next endpoint
-        connect(endpoints, index + 1, onConnect);
+        connect(endpoints, index + 1, pooled, onConnect);
         return;
       }
 
@@ -143,14 +150,14 @@ public class RedisClusterClient implements Redis {
       getSlots(conn, getSlots -> {
         if (getSlots.failed()) {
           // the slots command failed.
-          conn.close();
+          close(conn, pooled);
           // try with the next one
-          connect(endpoints, index + 1, onConnect);
+          connect(endpoints, index + 1, pooled, onConnect);
           return;
         }
 
         // slots are loaded (this connection isn't needed anymore)
-        conn.close();
+        close(conn, pooled);
         // create a cluster connection
         final Slots slots = getSlots.result();
         final AtomicBoolean failed = new AtomicBoolean(false);
@@ -158,14 +165,14 @@ public class RedisClusterClient implements Redis {
         final Map<String, RedisConnection> connections = new HashMap<>();
 
         // validate if the pool config is valid
-        if (options.getMaxPoolSize() < slots.size()) {
+        if (pooled && options.getMaxPoolSize() < slots.size()) {
           // this isn't a valid setup, the connection pool will not accommodate all the required connections
           onConnect.handle(Future.failedFuture("RedisOptions maxPoolSize < Cluster size(" + slots.size() + "): The pool is not able to hold all required connections!"));
           return;
         }
 
         for (String endpoint: slots.endpoints()) {
-          connectionManager.getConnection(endpoint, RedisSlaves.NEVER != options.getUseSlave() ? cmd(READONLY) : null, getClusterConnection -> {
+          getConnection(endpoint, pooled, getClusterConnection -> {
             if (getClusterConnection.failed()) {
               // failed try with the next endpoint
               failed.set(true);
@@ -188,7 +195,7 @@ public class RedisClusterClient implements Redis {
                 synchronized (connections) {
                   connections.forEach((key, value) -> {
                     if (value != null) {
-                      value.close();
+                      close(value, pooled);
                     }
                   });
                 }
@@ -204,8 +211,39 @@ public class RedisClusterClient implements Redis {
     });
   }
 
+  private void getConnection(String endpoint, boolean pooled, Handler<AsyncResult<RedisConnection>> onConnect) {
+    final Request setup = RedisSlaves.NEVER != options.getUseSlave() ? cmd(READONLY) : null;
+    if (pooled) {
+      connectionManager.getConnection(endpoint, setup, onConnect);
+    } else {
+      connectionManager.getUnpooledConnection(endpoint, setup, onConnect);
+    }
+  }
+
+  private static void close(RedisConnection conn, boolean pooled) {
+    if (pooled) {
+      conn.close();
+    } else {
+      // not pooled, the socket must be closed
+      ((RedisConnectionImpl) conn).forceClose();
+    }
+  }
+
+  @Override
+  public Redis send(Request command, Handler<AsyncResult<Response>> onSend) {
+    sharedConnections.send(command, onSend);
+    return this;
+  }
+
+  @Override
+  public Redis batch(List<Request> commands, Handler<AsyncResult<List<Response>>> onSend) {
+    sharedConnections.batch(commands, onSend);
+    return this;
+  }
+
   @Override
   public void close() {
+    sharedConnections.close();
     connectionManager.close();
   }
 
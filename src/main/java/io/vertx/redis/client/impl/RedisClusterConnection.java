@@ -2,6 +2,8 @@ package io.vertx.redis.client.impl;
 
 import io.vertx.codegen.annotations.Nullable;
 import io.vertx.core.*;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.ReadStream;
 import io.vertx.redis.client.*;
 import io.vertx.redis.client.impl.types.ErrorType;
 
@@ -122,6 +124,11 @@ public class RedisClusterConnection implements RedisConnection {
       return this;
     }
 
+    if (!req.complete()) {
+      handler.handle(Future.failedFuture(RequestImpl.INCOMPLETE));
+      return this;
+    }
+
     if (cmd.isMovable()) {
       // in cluster mode we currently do not handle movable keys commands
       handler.handle(Future.failedFuture("RedisClusterClient does not handle movable keys commands, use non cluster client on the right node."));
@@ -220,6 +227,76 @@ public class RedisClusterConnection implements RedisConnection {
     return this;
   }
 
+  @Override
+  public <T> RedisConnection send(Request request, ResponseDecoder<T> decoder, Handler<AsyncResult<T>> handler) {
+    final RedisConnection connection = nodeConnection((RequestImpl) request, handler);
+    if (connection != null) {
+      connection.send(request, decoder, handler);
+    }
+    return this;
+  }
+
+  @Override
+  public RedisConnection streamBulk(Request request, Handler<AsyncResult<ReadStream<Buffer>>> handler) {
+    final RedisConnection connection = nodeConnection((RequestImpl) request, handler);
+    if (connection != null) {
+      connection.streamBulk(request, handler);
+    }
+    return this;
+  }
+
+  @Override
+  public RedisConnection streamMulti(Request request, Handler<AsyncResult<ReadStream<Response>>> handler) {
+    final RedisConnection connection = nodeConnection((RequestImpl) request, handler);
+    if (connection != null) {
+      connection.streamMulti(request, handler);
+    }
+    return this;
+  }
+
+  /**
+   * Selects the node connection for a streamed or decoded request, these replies cannot be reduced so the request must
+   * target a single slot. When no connection can be selected the handler is failed and {@code null} is returned.
+   */
+  private <T> RedisConnection nodeConnection(RequestImpl req, Handler<AsyncResult<T>> handler) {
+    final Command cmd = req.command();
+
+    if (UNSUPPORTEDCOMMANDS.containsKey(cmd)) {
+      handler.handle(Future.failedFuture(UNSUPPORTEDCOMMANDS.get(cmd)));
+      return null;
+    }
+
+    if (!req.complete()) {
+      handler.handle(Future.failedFuture(RequestImpl.INCOMPLETE));
+      return null;
+    }
+
+    if (cmd.isMovable()) {
+      // in cluster mode we currently do not handle movable keys commands
+      handler.handle(Future.failedFuture("RedisClusterClient does not handle movable keys commands, use non cluster client on the right node."));
+      return null;
+    }
+
+    final String endpoint;
+
+    if (cmd.isKeyless()) {
+      // it doesn't matter which node to use
+      endpoint = selectEndpoint(-1, cmd.isReadOnly());
+    } else {
+      // all keys are expected to be on the slot of the first one
+      int start = cmd.getFirstKey() - 1;
+      endpoint = selectEndpoint(ZModem.generate(req.getArgs().get(start)), cmd.isReadOnly());
+    }
+
+    final RedisConnection connection = connections.get(endpoint);
+
+    if (connection == null) {
+      handler.handle(Future.failedFuture("Missing connection to: " + endpoint));
+    }
+
+    return connection;
+  }
+
   private Map<Integer, Request> splitRequest(Command cmd, List<byte[]> args, int start, int end, int step) {
     // we will split the request across the slots
     final Map<Integer, Request> map = new IdentityHashMap<>();
@@ -331,6 +408,11 @@ public class RedisClusterConnection implements RedisConnection {
         return this;
       }
 
+      if (!req.complete()) {
+        handler.handle(Future.failedFuture(RequestImpl.INCOMPLETE));
+        return this;
+      }
+
       readOnly |= cmd.isReadOnly();
 
       // this command can run anywhere
@@ -449,6 +531,17 @@ public class RedisClusterConnection implements RedisConnection {
     });
   }
 
+  /**
+   * Closes the sockets of the node connections, for a cluster connection created outside of the pool.
+   */
+  void forceClose() {
+    connections.forEach((key, value) -> {
+      if (value != null) {
+        ((RedisConnectionImpl) value).forceClose();
+      }
+    });
+  }
+
   @Override
   public boolean pendingQueueFull() {
     for (RedisConnection conn : connections.values()) {
@@ -461,6 +554,44 @@ public class RedisClusterConnection implements RedisConnection {
     return false;
   }
 
+  @Override
+  public boolean writeQueueFull() {
+    for (RedisConnection conn : connections.values()) {
+      if (conn != null) {
+        if (conn.writeQueueFull()) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public RedisConnection drainHandler(@Nullable Handler<Void> handler) {
+    for (RedisConnection conn : connections.values()) {
+      if (conn != null) {
+        // the cluster connection drains once no node is full
+        conn.drainHandler(handler == null ? null : v -> {
+          if (!writeQueueFull()) {
+            handler.handle(null);
+          }
+        });
+      }
+    }
+    return this;
+  }
+
+  @Override
+  public long retainedBufferBytes() {
+    long bytes = 0;
+    for (RedisConnection conn : connections.values()) {
+      if (conn != null) {
+        bytes += conn.retainedBufferBytes();
+      }
+    }
+    return bytes;
+  }
+
   /**
    * Select a Redis client for the given key
    */
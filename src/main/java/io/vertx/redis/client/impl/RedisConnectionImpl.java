@@ -1,45 +1,95 @@
 package io.vertx.redis.client.impl;
 
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.util.internal.PlatformDependent;
 import io.vertx.core.*;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.impl.pool.ConnectionListener;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.core.impl.NetSocketInternal;
+import io.vertx.core.impl.NoStackTraceThrowable;
 import io.vertx.core.impl.logging.Logger;
 import io.vertx.core.impl.logging.LoggerFactory;
-import io.vertx.core.net.NetSocket;
+import io.vertx.core.streams.ReadStream;
 import io.vertx.redis.client.*;
 import io.vertx.redis.client.impl.types.ErrorType;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Queue;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
 
 public class RedisConnectionImpl implements RedisConnection, ParserHandler {
 
   private static final Logger LOG = LoggerFactory.getLogger(RedisConnectionImpl.class);
 
   private static final ErrorType CONNECTION_CLOSED = ErrorType.create("CONNECTION_CLOSED");
+  private static final ErrorType TIMEOUT = ErrorType.create("TIMEOUT A request timed out, the connection is closed");
+
+  // the number of slots of the timing wheel, with the 10ms tick a round takes a little over 5 seconds
+  private static final int WHEEL_SIZE = 512;
+
+  private static final String QUEUE_FULL = "Redis waiting Queue is full";
 
   private final ConnectionListener<RedisConnection> listener;
   private final Context context;
-  private final NetSocket netSocket;
+  private final NetSocketInternal netSocket;
+  // the parser of the replies received by the socket
+  private final RESPParser parser;
+  // the codec in the socket channel pipeline
+  private final RESPCodec codec;
   // waiting: commands that have been sent but not answered
   // the queue is only accessed from the event loop
   private final ArrayQueue waiting;
   private final int recycleTimeout;
+  private final long requestTimeout;
+  private final long waitingQueueTimeout;
 
   // state
+  private ReplyStream<?> streaming;
   private Handler<Throwable> onException;
   private Handler<Void> onEnd;
   private Handler<Response> onMessage;
-
-  public RedisConnectionImpl(Vertx vertx, ConnectionListener<RedisConnection> connectionListener, NetSocket netSocket, RedisOptions options) {
+  // the deadlines of the waiting requests, created on the first request with a timeout
+  private TimeoutWheel timeouts;
+  private long timer = -1;
+  // once a request timed out the replies can no longer be matched with the requests, nothing else is sent
+  private boolean poisoned;
+  // requests held in order while the waiting queue is full, created on the first one
+  private ArrayDeque<Pending> held;
+  // requests sent from other threads, drained by the context with a single wake up
+  private final Queue<Pending> submitted = PlatformDependent.newMpscQueue();
+  private final AtomicBoolean draining = new AtomicBoolean();
+  private long heldTimer = -1;
+  // the connection was full since the drain handler was last called, set from any thread
+  private volatile boolean full;
+  private Handler<Void> onDrain;
+
+  public RedisConnectionImpl(Vertx vertx, ConnectionListener<RedisConnection> connectionListener, NetSocketInternal netSocket, RedisOptions options) {
     this.listener = connectionListener;
     this.context = vertx.getOrCreateContext();
     this.netSocket = netSocket;
     this.waiting = new ArrayQueue(options.getMaxWaitingHandlers());
     this.recycleTimeout = options.getPoolRecycleTimeout();
+    this.requestTimeout = options.getRequestTimeout();
+    this.waitingQueueTimeout = options.getWaitingQueueTimeout();
+    this.parser = new RESPParser(this, options.getMaxNestedArrays(), options.isZeroCopyBulk(), options.isLazyMulti(), options.getMaxBufferedBytes());
+    final Channel channel = netSocket.channelHandlerContext().channel();
+    // requests keep being encoded with the channel allocator
+    final ByteBufAllocator alloc = channel.alloc();
+    if (options.isZeroCopyBulk() || options.isLazyMulti()) {
+      // the values are views over the read chunks, read them into memory that is not recycled
+      channel.config().setAllocator(RESPParser.VIEW_ALLOCATOR);
+    }
+    // replies are parsed and requests are encoded in the channel pipeline, before the socket
+    this.codec = new RESPCodec((ContextInternal) context, alloc, parser, options.isWriteCoalescing(), this::encodeFailed);
+    netSocket.channelHandlerContext().pipeline().addBefore("handler", RESPCodec.NAME, codec);
   }
 
   void forceClose() {
@@ -58,6 +108,33 @@ public class RedisConnectionImpl implements RedisConnection, ParserHandler {
     return waiting.isFull();
   }
 
+  @Override
+  public boolean writeQueueFull() {
+    if (waiting.isFull() || netSocket.writeQueueFull()) {
+      // the caller is expected to wait for the drain handler
+      markFull();
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public RedisConnection drainHandler(Handler<Void> handler) {
+    this.onDrain = handler;
+    // the socket drains when the bytes queued have been flushed, the waiting queue when replies arrive
+    netSocket.drainHandler(handler == null ? null : v -> {
+      if (!waiting.isFull() && (held == null || held.isEmpty())) {
+        drained();
+      }
+    });
+    return this;
+  }
+
+  @Override
+  public long retainedBufferBytes() {
+    return parser.retainedBytes();
+  }
+
   @Override
   public RedisConnection exceptionHandler(Handler<Throwable> handler) {
     this.onException = handler;
@@ -78,13 +155,13 @@ public class RedisConnectionImpl implements RedisConnection, ParserHandler {
 
   @Override
   public RedisConnection pause() {
-    netSocket.pause();
+    codec.pause();
     return this;
   }
 
   @Override
   public RedisConnection resume() {
-    netSocket.resume();
+    codec.resume();
     return this;
   }
 
@@ -96,98 +173,371 @@ public class RedisConnectionImpl implements RedisConnection, ParserHandler {
 
   @Override
   public RedisConnection send(final Request request, Handler<AsyncResult<Response>> handler) {
-    if (waiting.isFull()) {
-      handler.handle(Future.failedFuture("Redis waiting Queue is full"));
+    if (waiting.isFull() && waitingQueueTimeout <= 0) {
+      markFull();
+      handler.handle(Future.failedFuture(QUEUE_FULL));
+      return this;
+    }
+
+    if (!((RequestImpl) request).complete()) {
+      handler.handle(Future.failedFuture(RequestImpl.INCOMPLETE));
       return this;
     }
 
-    // encode the message to a buffer
-    final Buffer message = ((RequestImpl) request).encode();
+    // all update operations happen inside the context, requests sent from elsewhere are submitted to it
+    if (onContext()) {
+      if (admit(handler, request)) {
+        write(request);
+      }
+    } else {
+      submit(new Pending(handler, request, null));
+    }
+
+    return this;
+  }
+
+  /**
+   * Offers the handler of a request to the waiting queue, unless the request must be held or failed.
+   *
+   * @return true when the request is to be written.
+   */
+  private boolean admit(Handler<AsyncResult<Response>> handler, Request request) {
+    if (poisoned) {
+      handler.handle(Future.failedFuture(TIMEOUT));
+      return false;
+    }
+    if (waiting.isFull() || (held != null && !held.isEmpty())) {
+      hold(new Pending(handler, request, null));
+      return false;
+    }
+    offer(handler, request);
+    return true;
+  }
+
+  private void offer(Handler<AsyncResult<Response>> handler, Request request) {
+    track(request);
+    // offer the handler to the waiting queue
+    waiting.offer(handler);
+  }
+
+  /**
+   * @param message a request or a list of requests.
+   */
+  private void write(Object message) {
+    // the codec encodes the request in the pipeline, a request that cannot be encoded fails on its own (see
+    // encodeFailed), a failed write is reported to the socket exception handler, which terminates the connection as it
+    // is then in an unknown state
+    netSocket.writeMessage(message);
+  }
+
+  /**
+   * A request could not be encoded, it was not written so it will get no reply: its handler is failed and taken out of
+   * the waiting queue, the requests around it were written and stay in sync with their replies.
+   */
+  private void encodeFailed(Throwable cause, long sequence) {
     // all update operations happen inside the context
-    context.runOnContext(v -> {
-      // offer the handler to the waiting queue
-      waiting.offer(handler);
-      // write to the socket
-      netSocket.write(message, write -> {
-        if (write.failed()) {
-          // if the write fails, this connection enters a unknown state
-          // which means it should be terminated
-          fatal(write.cause());
+    if (onContext()) {
+      skip(sequence, cause);
+    } else {
+      context.runOnContext(v -> skip(sequence, cause));
+    }
+  }
+
+  private void skip(long sequence, Throwable cause) {
+    final Handler<AsyncResult<Response>> req = waiting.skip(sequence);
+    if (req != null) {
+      try {
+        req.handle(Future.failedFuture(cause));
+      } catch (RuntimeException e) {
+        fail(e);
+      }
+      release();
+    }
+  }
+
+  /**
+   * Queues a request sent from another thread, the context is only woken up when the queue was not being drained
+   * already.
+   */
+  private void submit(Pending request) {
+    submitted.offer(request);
+    if (draining.compareAndSet(false, true)) {
+      context.runOnContext(this::drain);
+    }
+  }
+
+  /**
+   * Admits all the submitted requests and writes them at once.
+   */
+  private void drain(Void v) {
+    // most drains admit a single request, the list is only created for more
+    Request first = null;
+    List<Request> requests = null;
+
+    do {
+      Pending next;
+      while ((next = submitted.poll()) != null) {
+        if (next.request != null) {
+          if (!admit(next.handler, next.request)) {
+            continue;
+          }
+          if (first == null) {
+            first = next.request;
+            continue;
+          }
+          if (requests == null) {
+            requests = new ArrayList<>();
+            requests.add(first);
+          }
+          requests.add(next.request);
+        } else {
+          if (!admit((BatchHandler) next.handler, next.requests)) {
+            continue;
+          }
+          if (requests == null) {
+            requests = new ArrayList<>(next.requests.size() + 1);
+            if (first != null) {
+              requests.add(first);
+            }
+          }
+          requests.addAll(next.requests);
+          first = requests.get(0);
         }
-      });
-    });
+      }
+      draining.set(false);
+      // a request submitted after the last poll but before the flag was cleared did not wake the context up
+    } while (!submitted.isEmpty() && draining.compareAndSet(false, true));
+
+    if (requests != null) {
+      // the codec encodes the whole list to a single buffer
+      write(requests);
+    } else if (first != null) {
+      write(first);
+    }
+  }
 
-    return this;
+  /**
+   * Holds a request until the waiting queue has room for it, or until the waiting queue timeout.
+   */
+  private void hold(Pending request) {
+    full = true;
+
+    if (waitingQueueTimeout <= 0) {
+      // the queue filled up after the request was checked on another thread
+      request.fail(new NoStackTraceThrowable(QUEUE_FULL));
+      return;
+    }
+
+    if (held == null) {
+      held = new ArrayDeque<>();
+    }
+    request.deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitingQueueTimeout);
+    held.add(request);
+    // the deadlines are in the order of the requests, a single timer for the oldest one is enough
+    if (heldTimer == -1) {
+      heldTimer = context.owner().setTimer(waitingQueueTimeout, this::expire);
+    }
+  }
+
+  /**
+   * Sends the held requests there is room for, called on the context when a reply has been taken from the waiting
+   * queue.
+   */
+  private void release() {
+    if (held != null) {
+      Pending next;
+      while ((next = held.peek()) != null && waiting.freeSlots() >= next.slots()) {
+        held.poll();
+        if (next.request != null) {
+          offer(next.handler, next.request);
+          write(next.request);
+        } else {
+          offer((BatchHandler) next.handler, next.requests);
+          write(next.requests);
+        }
+      }
+    }
+
+    checkDrained();
+  }
+
+  private void checkDrained() {
+    if (full && !waiting.isFull() && (held == null || held.isEmpty()) && !netSocket.writeQueueFull()) {
+      drained();
+    }
+  }
+
+  /**
+   * Flags the connection as full, called from any thread.
+   */
+  private void markFull() {
+    full = true;
+    if (!onContext()) {
+      // the queue may have drained on the context between the check and the flag, nothing else would call the drain
+      // handler then
+      context.runOnContext(v -> checkDrained());
+    }
+  }
+
+  private void drained() {
+    full = false;
+    if (onDrain != null) {
+      try {
+        onDrain.handle(null);
+      } catch (RuntimeException e) {
+        fail(e);
+      }
+    }
+  }
+
+  private void expire(long id) {
+    heldTimer = -1;
+    final long now = System.nanoTime();
+    Pending next;
+
+    while ((next = held.peek()) != null && next.deadline - now <= 0) {
+      held.poll();
+      next.fail(new NoStackTraceThrowable(QUEUE_FULL));
+    }
+
+    if (next != null) {
+      heldTimer = context.owner().setTimer(Math.max(1, TimeUnit.NANOSECONDS.toMillis(next.deadline - now)), this::expire);
+    }
+  }
+
+  /**
+   * Adds the deadline of a request about to be offered to the waiting queue, if it has one.
+   */
+  private void track(Request request) {
+    long timeout = ((RequestImpl) request).timeout();
+    if (timeout <= 0) {
+      timeout = requestTimeout;
+    }
+    if (timeout <= 0) {
+      return;
+    }
+    if (timeouts == null) {
+      timeouts = new TimeoutWheel(WHEEL_SIZE, System.nanoTime());
+    }
+    timeouts.add(waiting.offered(), timeout, System.nanoTime());
+    // a single timer per connection, it only runs while there are deadlines to track
+    if (timer == -1) {
+      timer = context.owner().setPeriodic(TimeoutWheel.TICK, this::tick);
+    }
+  }
+
+  private void tick(long id) {
+    // the periodic timer can fire late, the wheel catches up with the clock
+    if (timeouts.advance(waiting.polled(), System.nanoTime()) != -1) {
+      poison();
+    } else if (timeouts.isEmpty()) {
+      cancelTimer();
+    }
+  }
+
+  private void cancelTimer() {
+    if (timer != -1) {
+      context.owner().cancelTimer(timer);
+      timer = -1;
+    }
+    if (timeouts != null) {
+      timeouts.clear();
+    }
+  }
+
+  /**
+   * A request timed out, RESP has no request ids so its reply (if it ever arrives) would be matched with the next
+   * request. All the waiting requests fail and the connection is closed.
+   */
+  private void poison() {
+    poisoned = true;
+    cancelTimer();
+    fatal(TIMEOUT);
+    netSocket.close();
+  }
+
+  @Override
+  public <T> RedisConnection send(Request request, ResponseDecoder<T> decoder, Handler<AsyncResult<T>> handler) {
+    return send(request, new DecoderHandler<>(decoder, handler));
+  }
+
+  @Override
+  public RedisConnection streamBulk(Request request, Handler<AsyncResult<ReadStream<Buffer>>> handler) {
+    return send(request, new StreamHandler<>(ResponseType.BULK, handler));
+  }
+
+  @Override
+  public RedisConnection streamMulti(Request request, Handler<AsyncResult<ReadStream<Response>>> handler) {
+    return send(request, new StreamHandler<>(ResponseType.MULTI, handler));
   }
 
   @Override
   public RedisConnection batch(List<Request> commands, Handler<AsyncResult<List<Response>>> handler) {
-    if (waiting.freeSlots() < commands.size()) {
-      handler.handle(Future.failedFuture("Redis waiting Queue is full"));
+    if (waiting.freeSlots() < commands.size() && (waitingQueueTimeout <= 0 || commands.size() > waiting.capacity())) {
+      markFull();
+      handler.handle(Future.failedFuture(QUEUE_FULL));
       return this;
     }
 
-    // will re-encode the handler into a list of handlers
-    final List<Handler<AsyncResult<Response>>> callbacks = new ArrayList<>(commands.size());
-    final List<Response> replies = new ArrayList<>(commands.size());
-    final AtomicInteger count = new AtomicInteger(commands.size());
-    final AtomicBoolean failed = new AtomicBoolean(false);
-
-    // encode the message to a single buffer
-    final Buffer messages = Buffer.buffer();
-
-    for (int i = 0; i < commands.size(); i++) {
-      final int index = i;
-      final RequestImpl req = (RequestImpl) commands.get(index);
-      // encode to the single buffer
-      req.encode(messages);
-      // unwrap the handler into a single handler
-      callbacks.add(index, command -> {
-        if (!failed.get()) {
-          if (command.failed()) {
-            failed.set(true);
-            if (handler != null) {
-              handler.handle(Future.failedFuture(command.cause()));
-            }
-            return;
-          }
-          // set the reply
-          replies.add(index, command.result());
+    for (Request command : commands) {
+      if (!((RequestImpl) command).complete()) {
+        handler.handle(Future.failedFuture(RequestImpl.INCOMPLETE));
+        return this;
+      }
+    }
 
-          if (count.decrementAndGet() == 0) {
-            // all results have arrived
-            if (handler != null) {
-              handler.handle(Future.succeededFuture(replies));
-            }
-          }
-        }
-      });
+    if (commands.isEmpty()) {
+      if (handler != null) {
+        handler.handle(Future.succeededFuture(Collections.emptyList()));
+      }
+      return this;
     }
 
-    // all update operations happen inside the context
-    context.runOnContext(v -> {
-      // offer all handlers to the waiting queue
-      for (Handler<AsyncResult<Response>> callback : callbacks) {
-        waiting.offer(callback);
+    // a single waiting handler collects all the replies
+    final BatchHandler batch = new BatchHandler(commands.size(), handler);
+
+    // all update operations happen inside the context, requests sent from elsewhere are submitted to it
+    if (onContext()) {
+      if (admit(batch, commands)) {
+        // the codec encodes the whole batch to a single buffer
+        write(commands);
       }
-      // write to the socket
-      netSocket.write(messages, write -> {
-        if (write.failed()) {
-          // if the write fails, this connection enters a unknown state
-          // which means it should be terminated
-          fatal(write.cause());
-        }
-      });
-    });
+    } else {
+      submit(new Pending(batch, null, commands));
+    }
 
     return this;
   }
 
+  private boolean admit(BatchHandler batch, List<Request> requests) {
+    if (poisoned) {
+      batch.handle(Future.failedFuture(TIMEOUT));
+      return false;
+    }
+    if (waiting.freeSlots() < requests.size() || (held != null && !held.isEmpty())) {
+      hold(new Pending(batch, null, requests));
+      return false;
+    }
+    offer(batch, requests);
+    return true;
+  }
+
+  private void offer(BatchHandler batch, List<Request> requests) {
+    // the batch handler is offered once per request
+    for (int i = 0; i < requests.size(); i++) {
+      track(requests.get(i));
+      waiting.offer(batch);
+    }
+  }
 
   @Override
   public void handle(Response reply) {
-    // pub/sub mode
-    if (waiting.isEmpty()) {
+    if (poisoned) {
+      // a late reply of a request that timed out, or of one that followed it
+      return;
+    }
+    // pub/sub mode or RESP3 out of band data, only the subscription confirmations answer a command
+    if (waiting.isEmpty() || (reply != null && reply.type() == ResponseType.PUSH && !isSubscription(reply))) {
       if (onMessage != null) {
         onMessage.handle(reply);
       } else {
@@ -196,44 +546,151 @@ public class RedisConnectionImpl implements RedisConnection, ParserHandler {
       return;
     }
 
-    // all update operations happen inside the context
-    context.runOnContext(v -> {
-      final Handler<AsyncResult<Response>> req = waiting.poll();
-
-      if (req != null) {
-        // special case (nulls are always a success)
-        // the reason is that nil is only a valid value for
-        // bulk or multi
-        if (reply == null) {
-          try {
-            req.handle(Future.succeededFuture());
-          } catch (RuntimeException e) {
-            fail(e);
-          }
-          return;
-        }
-        // errors
-        if (reply.type() == ResponseType.ERROR) {
-          try {
-            req.handle(Future.failedFuture((ErrorType) reply));
-          } catch (RuntimeException e) {
-            fail(e);
-          }
-          return;
+    // the handler is taken right away (the parser runs on the event loop) so the waiting queue is always in sync with
+    // the parser when a reply is about to be streamed
+    final Handler<AsyncResult<Response>> req = waiting.poll();
+
+    // all callbacks happen inside the context, the parser already runs there so there is no need to hop
+    if (onContext()) {
+      dispatch(req, reply);
+    } else {
+      context.runOnContext(v -> dispatch(req, reply));
+    }
+  }
+
+  private void dispatch(Handler<AsyncResult<Response>> req, Response reply) {
+    if (req != null) {
+      // special case (nulls are always a success)
+      // the reason is that nil is only a valid value for
+      // bulk or multi
+      if (reply == null) {
+        try {
+          req.handle(Future.succeededFuture());
+        } catch (RuntimeException e) {
+          fail(e);
         }
-        // everything else
+        return;
+      }
+      // errors
+      if (reply.type() == ResponseType.ERROR) {
         try {
-          req.handle(Future.succeededFuture(reply));
+          req.handle(Future.failedFuture((ErrorType) reply));
         } catch (RuntimeException e) {
           fail(e);
         }
-      } else {
-        LOG.error("No handler waiting for message: " + reply);
+        return;
       }
-    });
+      // everything else
+      try {
+        req.handle(Future.succeededFuture(reply));
+      } catch (RuntimeException e) {
+        fail(e);
+      }
+    } else {
+      LOG.error("No handler waiting for message: " + reply);
+    }
+    release();
+  }
+
+  private boolean onContext() {
+    return Vertx.currentContext() == context;
+  }
+
+  private static boolean isSubscription(Response push) {
+    if (push.size() == 0) {
+      return false;
+    }
+    switch (push.get(0).toString()) {
+      case "subscribe":
+      case "unsubscribe":
+      case "psubscribe":
+      case "punsubscribe":
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  @Override
+  public ReplyStream<Buffer> bulkStream(int length) {
+    return stream(ResponseType.BULK);
+  }
+
+  @Override
+  public ReplyStream<Response> multiStream(int length) {
+    return stream(ResponseType.MULTI);
+  }
+
+  private <T> ReplyStream<T> stream(ResponseType type) {
+    if (poisoned) {
+      // the reply is built and dropped
+      return null;
+    }
+
+    final Object head = waiting.peek();
+
+    if (!(head instanceof StreamHandler) || ((StreamHandler) head).type != type) {
+      return null;
+    }
+
+    final StreamHandler<T> req = waiting.poll();
+    final ReplyStream<T> stream = new ReplyStream<>(context, this);
+    streaming = stream;
+    // the stream is handed over before any item is written so the handlers are in place in time
+    try {
+      req.handler.handle(Future.succeededFuture(stream));
+    } catch (RuntimeException e) {
+      fail(e);
+    }
+    release();
+    return stream;
+  }
+
+  @Override
+  public void streamEnded() {
+    // the items still pending are delivered by the stream itself, the connection no longer needs it
+    streaming = null;
+  }
+
+  @Override
+  public ResponseDecoder<?> decoder() {
+    if (poisoned) {
+      // the reply is built and dropped
+      return null;
+    }
+    final Object head = waiting.peek();
+    return head instanceof DecoderHandler ? ((DecoderHandler) head).decoder : null;
+  }
+
+  @Override
+  public void decoded(Throwable failure) {
+    if (poisoned) {
+      // the request was already failed with the others waiting when the connection was poisoned
+      return;
+    }
+    final DecoderHandler<?> req = waiting.poll();
+
+    // all callbacks happen inside the context, the parser already runs there so there is no need to hop
+    if (onContext()) {
+      complete(req, failure);
+    } else {
+      context.runOnContext(v -> complete(req, failure));
+    }
+  }
+
+  private void complete(DecoderHandler<?> req, Throwable failure) {
+    try {
+      req.complete(failure);
+    } catch (RuntimeException e) {
+      fail(e);
+    }
+    release();
   }
 
   public void end(Void v) {
+    // nothing else will be received
+    parser.release();
+    cancelTimer();
     // clean up the pending queue
     cleanupQueue(CONNECTION_CLOSED);
 //    // evict this connection
@@ -290,19 +747,180 @@ public class RedisConnectionImpl implements RedisConnection, ParserHandler {
   }
 
   private void cleanupQueue(Throwable t) {
+    // a reply being streamed will not complete
+    if (streaming != null) {
+      streaming.fail(t);
+      streaming = null;
+    }
     // all update operations happen inside the context
-    context.runOnContext(v -> {
-      Handler<AsyncResult<Response>> req;
-
-      while ((req = waiting.poll()) != null) {
-        if (t != null) {
-          try {
-            req.handle(Future.failedFuture(t));
-          } catch (RuntimeException e) {
-            LOG.warn("Exception during cleanup", e);
-          }
+    if (onContext()) {
+      failQueue(t);
+    } else {
+      context.runOnContext(v -> failQueue(t));
+    }
+  }
+
+  private void failQueue(Throwable t) {
+    Handler<AsyncResult<Response>> req;
+
+    while ((req = waiting.poll()) != null) {
+      if (t != null) {
+        try {
+          req.handle(Future.failedFuture(t));
+        } catch (RuntimeException e) {
+          LOG.warn("Exception during cleanup", e);
         }
       }
-    });
+    }
+
+    if (held != null) {
+      if (heldTimer != -1) {
+        context.owner().cancelTimer(heldTimer);
+        heldTimer = -1;
+      }
+      Pending next;
+      while ((next = held.poll()) != null) {
+        try {
+          next.fail(t != null ? t : CONNECTION_CLOSED);
+        } catch (RuntimeException e) {
+          LOG.warn("Exception during cleanup", e);
+        }
+      }
+    }
+  }
+
+  /**
+   * A request, or a batch, not written yet: submitted from another thread or held until the waiting queue has room
+   * for it.
+   */
+  private static final class Pending {
+
+    private final Handler<AsyncResult<Response>> handler;
+    private final Request request;
+    private final List<Request> requests;
+    private long deadline;
+
+    Pending(Handler<AsyncResult<Response>> handler, Request request, List<Request> requests) {
+      this.handler = handler;
+      this.request = request;
+      this.requests = requests;
+    }
+
+    int slots() {
+      return request != null ? 1 : requests.size();
+    }
+
+    void fail(Throwable t) {
+      handler.handle(Future.failedFuture(t));
+    }
+  }
+
+  /**
+   * The waiting handler of all the requests of a batch, offered once per request. Replies arrive in order so each one
+   * is stored at the next index, everything happens on the event loop so plain fields are enough.
+   */
+  private static final class BatchHandler implements Handler<AsyncResult<Response>> {
+
+    private final Response[] replies;
+    private final Handler<AsyncResult<List<Response>>> handler;
+    private int received;
+    private boolean failed;
+
+    BatchHandler(int size, Handler<AsyncResult<List<Response>>> handler) {
+      this.replies = new Response[size];
+      this.handler = handler;
+    }
+
+    @Override
+    public void handle(AsyncResult<Response> reply) {
+      final int index = received++;
+
+      if (failed) {
+        return;
+      }
+
+      if (reply.failed()) {
+        // the first failure fails the batch, the remaining replies are dropped
+        failed = true;
+        if (handler != null) {
+          handler.handle(Future.failedFuture(reply.cause()));
+        }
+        return;
+      }
+
+      replies[index] = reply.result();
+
+      if (received == replies.length) {
+        // all results have arrived, the list is a view of the array
+        if (handler != null) {
+          handler.handle(Future.succeededFuture(Arrays.asList(replies)));
+        }
+      }
+    }
+  }
+
+  /**
+   * A waiting handler that wants the reply streamed, only replies that are not streamed reach it.
+   */
+  private static final class StreamHandler<T> implements Handler<AsyncResult<Response>> {
+
+    private final ResponseType type;
+    private final Handler<AsyncResult<ReadStream<T>>> handler;
+
+    StreamHandler(ResponseType type, Handler<AsyncResult<ReadStream<T>>> handler) {
+      this.type = type;
+      this.handler = handler;
+    }
+
+    @Override
+    public void handle(AsyncResult<Response> reply) {
+      if (reply.failed()) {
+        handler.handle(Future.failedFuture(reply.cause()));
+        return;
+      }
+      if (reply.result() == null) {
+        handler.handle(Future.succeededFuture());
+        return;
+      }
+      handler.handle(Future.failedFuture("Redis reply is not a " + type + ": " + reply.result().type()));
+    }
+  }
+
+  /**
+   * A waiting handler that wants the reply decoded, only replies that are not decoded (errors) reach it.
+   */
+  private static final class DecoderHandler<T> implements Handler<AsyncResult<Response>> {
+
+    private final ResponseDecoder<T> decoder;
+    private final Handler<AsyncResult<T>> handler;
+
+    DecoderHandler(ResponseDecoder<T> decoder, Handler<AsyncResult<T>> handler) {
+      this.decoder = decoder;
+      this.handler = handler;
+    }
+
+    @Override
+    public void handle(AsyncResult<Response> reply) {
+      if (reply.failed()) {
+        handler.handle(Future.failedFuture(reply.cause()));
+        return;
+      }
+      handler.handle(Future.failedFuture("Redis reply was not decoded: " + reply.result()));
+    }
+
+    void complete(Throwable failure) {
+      if (failure != null) {
+        handler.handle(Future.failedFuture(failure));
+        return;
+      }
+      final T result;
+      try {
+        result = decoder.result();
+      } catch (RuntimeException e) {
+        handler.handle(Future.failedFuture(e));
+        return;
+      }
+      handler.handle(Future.succeededFuture(result));
+    }
   }
 }
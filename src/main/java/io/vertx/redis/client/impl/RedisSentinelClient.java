@@ -50,8 +50,13 @@ public class RedisSentinelClient implements Redis {
 
   private final ConnectionManager connectionManager;
   private final RedisOptions options;
+  private final SharedConnections sharedConnections;
 
   private RedisConnection sentinel;
+  // watches the master switches for all the shared connections, established with the first one
+  private RedisConnection sharedSentinel;
+  private boolean watchingShared;
+  private boolean closed;
 
   public RedisSentinelClient(Vertx vertx, RedisOptions options) {
     this.options = options;
@@ -67,17 +72,107 @@ public class RedisSentinelClient implements Redis {
     this.connectionManager = new ConnectionManager(vertx, options);
 
     this.connectionManager.start();
+    // the shared and dedicated connections are not pooled so that they never wait for the connections checked out by
+    // the user, a dedicated connection lives for a single command and needs no watcher
+    this.sharedConnections = new SharedConnections(
+      options.getSharedConnections(),
+      onConnect -> {
+        watchShared();
+        createConnectionInternal(options, options.getRole(), false, onConnect);
+      },
+      onConnect -> createConnectionInternal(options, options.getRole(), false, onConnect));
+  }
+
+  @Override
+  public Redis send(Request command, Handler<AsyncResult<Response>> onSend) {
+    sharedConnections.send(command, onSend);
+    return this;
+  }
+
+  @Override
+  public Redis batch(List<Request> commands, Handler<AsyncResult<List<Response>>> onSend) {
+    sharedConnections.batch(commands, onSend);
+    return this;
   }
 
   @Override
   public void close() {
+    final RedisConnection watcher;
+    synchronized (this) {
+      closed = true;
+      watcher = sharedSentinel;
+      sharedSentinel = null;
+    }
+    if (watcher != null) {
+      close(watcher, false);
+    }
+    sharedConnections.close();
     this.connectionManager.close();
   }
 
+  /**
+   * Subscribes to the master switches once for all the shared connections, they are all replaced on a switch.
+   */
+  private void watchShared() {
+    synchronized (this) {
+      if (watchingShared || closed) {
+        return;
+      }
+      watchingShared = true;
+    }
+
+    createConnectionInternal(options, RedisRole.SENTINEL, false, create -> {
+      if (create.failed()) {
+        LOG.error("Redis PUB/SUB wrap failed.", create.cause());
+        synchronized (this) {
+          watchingShared = false;
+        }
+        return;
+      }
+
+      final RedisConnection watcher = create.result();
+
+      synchronized (this) {
+        if (closed) {
+          close(watcher, false);
+          return;
+        }
+        sharedSentinel = watcher;
+      }
+
+      watcher
+        .handler(msg -> {
+          if (msg.type() == ResponseType.MULTI || msg.type() == ResponseType.PUSH) {
+            if ("MESSAGE".equalsIgnoreCase(msg.get(0).toString())) {
+              LOG.warn("Received +switch-master message from Redis Sentinel, replacing the shared connections.");
+              sharedConnections.reset();
+            }
+          }
+        })
+        .endHandler(v -> {
+          // watch again with the next shared connection
+          synchronized (this) {
+            if (sharedSentinel == watcher) {
+              sharedSentinel = null;
+              watchingShared = false;
+            }
+          }
+        });
+
+      watcher.send(cmd(SUBSCRIBE).arg("+switch-master"), send -> {
+        if (send.failed()) {
+          LOG.error("Unable to subscribe to Sentinel PUBSUB", send.cause());
+        }
+      });
+
+      watcher.exceptionHandler(t -> LOG.error("Unhandled exception in Sentinel PUBSUB", t));
+    });
+  }
+
   @Override
   public Redis connect(Handler<AsyncResult<RedisConnection>> onCreate) {
     // sentinel (HA) requires 2 connections, one to watch for sentinel events and the connection itself
-    createConnectionInternal(options, options.getRole(), createConnection -> {
+    createConnectionInternal(options, options.getRole(), true, createConnection -> {
       if (createConnection.failed()) {
         onCreate.handle(Future.failedFuture(createConnection.cause()));
         return;
@@ -85,7 +180,7 @@ public class RedisSentinelClient implements Redis {
 
       final RedisConnection conn = createConnection.result();
 
-      createConnectionInternal(options, RedisRole.SENTINEL, create -> {
+      createConnectionInternal(options, RedisRole.SENTINEL, true, create -> {
         if (create.failed()) {
           LOG.error("Redis PUB/SUB wrap failed.", create.cause());
           return;
@@ -95,7 +190,7 @@ public class RedisSentinelClient implements Redis {
 
         sentinel
           .handler(msg -> {
-            if (msg.type() == ResponseType.MULTI) {
+            if (msg.type() == ResponseType.MULTI || msg.type() == ResponseType.PUSH) {
               if ("MESSAGE".equalsIgnoreCase(msg.get(0).toString())) {
                 // we don't care about the payload
                 if (conn != null) {
@@ -123,7 +218,7 @@ public class RedisSentinelClient implements Redis {
     return this;
   }
 
-  private void createConnectionInternal(RedisOptions options, RedisRole role, Handler<AsyncResult<RedisConnection>> onCreate) {
+  private void createConnectionInternal(RedisOptions options, RedisRole role, boolean pooled, Handler<AsyncResult<RedisConnection>> onCreate) {
 
     final Handler<AsyncResult<String>> createAndConnect = resolve -> {
       if (resolve.failed()) {
@@ -131,20 +226,39 @@ public class RedisSentinelClient implements Redis {
         return;
       }
       // wrap a new client
-      connectionManager.getConnection(resolve.result(), null, onCreate);
+      getConnection(resolve.result(), pooled, onCreate);
     };
 
     switch (role) {
       case SENTINEL:
-        resolveClient(this::isSentinelOk, options, createAndConnect);
+        resolveClient((endpoint, argument, handler) -> isSentinelOk(endpoint, pooled, handler), options, createAndConnect);
         break;
 
       case MASTER:
-        resolveClient(this::getMasterFromEndpoint, options, createAndConnect);
+        resolveClient((endpoint, argument, handler) -> getMasterFromEndpoint(endpoint, argument, pooled, handler), options, createAndConnect);
         break;
 
       case SLAVE:
-        resolveClient(this::getSlaveFromEndpoint, options, createAndConnect);
+        resolveClient((endpoint, argument, handler) -> getSlaveFromEndpoint(endpoint, argument, pooled, handler), options, createAndConnect);
+    }
+  }
+
+  /**
+   * Unpooled connections never wait for the connections checked out by the user, they are closed with their socket.
+   */
+  private void getConnection(String endpoint, boolean pooled, Handler<AsyncResult<RedisConnection>> onCreate) {
+    if (pooled) {
+      connectionManager.getConnection(endpoint, null, onCreate);
+    } else {
+      connectionManager.getUnpooledConnection(endpoint, null, onCreate);
+    }
+  }
+
+  private static void close(RedisConnection conn, boolean pooled) {
+    if (pooled) {
+      conn.close();
+    } else {
+      ((RedisConnectionImpl) conn).forceClose();
     }
   }
 
@@ -194,9 +308,9 @@ public class RedisSentinelClient implements Redis {
 
   // begin endpoint check methods
 
-  private void isSentinelOk(String endpoint, RedisOptions argument, Handler<AsyncResult<String>> handler) {
+  private void isSentinelOk(String endpoint, boolean pooled, Handler<AsyncResult<String>> handler) {
 
-    connectionManager.getConnection(endpoint, null, onCreate -> {
+    getConnection(endpoint, pooled, onCreate -> {
       if (onCreate.failed()) {
         handler.handle(Future.failedFuture(onCreate.cause()));
         return;
@@ -212,13 +326,13 @@ public class RedisSentinelClient implements Redis {
           handler.handle(Future.succeededFuture(endpoint));
         }
         // connection is not needed anymore
-        conn.close();
+        close(conn, pooled);
       });
     });
   }
 
-  private void getMasterFromEndpoint(String endpoint, RedisOptions options, Handler<AsyncResult<String>> handler) {
-    connectionManager.getConnection(endpoint, null, onCreate -> {
+  private void getMasterFromEndpoint(String endpoint, RedisOptions options, boolean pooled, Handler<AsyncResult<String>> handler) {
+    getConnection(endpoint, pooled, onCreate -> {
       if (onCreate.failed()) {
         handler.handle(Future.failedFuture(onCreate.cause()));
         return;
@@ -239,13 +353,13 @@ public class RedisSentinelClient implements Redis {
             Future.succeededFuture("redis://" + response.get(0).toString() + ":" + response.get(1).toInteger()));
         }
         // we don't need this connection anymore
-        conn.close();
+        close(conn, pooled);
       });
     });
   }
 
-  private void getSlaveFromEndpoint(String endpoint, RedisOptions options, Handler<AsyncResult<String>> handler) {
-    connectionManager.getConnection(endpoint, null, onCreate -> {
+  private void getSlaveFromEndpoint(String endpoint, RedisOptions options, boolean pooled, Handler<AsyncResult<String>> handler) {
+    getConnection(endpoint, pooled, onCreate -> {
       if (onCreate.failed()) {
         handler.handle(Future.failedFuture(onCreate.cause()));
         return;
@@ -290,7 +404,7 @@ public class RedisSentinelClient implements Redis {
           }
         }
         // connection is not needed anymore
-        conn.close();
+        close(conn, pooled);
       });
     });
   }
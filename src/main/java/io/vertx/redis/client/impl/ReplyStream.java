@@ -0,0 +1,121 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * <p>
+ * The Eclipse Public License is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * <p>
+ * The Apache License v2.0 is available at
+ * http://www.opensource.org/licenses/apache2.0.php
+ * <p>
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.client.impl;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.core.streams.impl.InboundBuffer;
+
+/**
+ * A reply delivered as it is parsed, either the chunks of a bulk payload or the elements of a multi. When the stream
+ * cannot keep up the upstream (the connection socket) is paused and resumed again once the pending items are drained.
+ */
+public final class ReplyStream<T> implements ReadStream<T> {
+
+  private final ReadStream<?> upstream;
+  private final InboundBuffer<Object> pending;
+
+  private Handler<T> handler;
+  private Handler<Void> endHandler;
+  private Handler<Throwable> exceptionHandler;
+  private boolean ended;
+
+  ReplyStream(Context context, ReadStream<?> upstream) {
+    this.upstream = upstream;
+    this.pending = new InboundBuffer<>(context)
+      .handler(this::handleItem)
+      .drainHandler(v -> upstream.resume());
+  }
+
+  // parser side
+
+  void write(T item) {
+    if (!pending.write(item)) {
+      upstream.pause();
+    }
+  }
+
+  void end() {
+    ended = true;
+    if (!pending.write(InboundBuffer.END_SENTINEL)) {
+      upstream.pause();
+    }
+  }
+
+  void fail(Throwable t) {
+    if (!ended) {
+      ended = true;
+      final Handler<Throwable> handler = exceptionHandler;
+      if (handler != null) {
+        handler.handle(t);
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void handleItem(Object item) {
+    if (item == InboundBuffer.END_SENTINEL) {
+      final Handler<Void> handler = endHandler;
+      if (handler != null) {
+        handler.handle(null);
+      }
+    } else {
+      final Handler<T> handler = this.handler;
+      if (handler != null) {
+        handler.handle((T) item);
+      }
+    }
+  }
+
+  // user side
+
+  @Override
+  public ReplyStream<T> exceptionHandler(Handler<Throwable> handler) {
+    this.exceptionHandler = handler;
+    return this;
+  }
+
+  @Override
+  public ReplyStream<T> handler(Handler<T> handler) {
+    this.handler = handler;
+    return this;
+  }
+
+  @Override
+  public ReplyStream<T> pause() {
+    pending.pause();
+    return this;
+  }
+
+  @Override
+  public ReplyStream<T> resume() {
+    pending.resume();
+    return this;
+  }
+
+  @Override
+  public ReplyStream<T> fetch(long amount) {
+    pending.fetch(amount);
+    return this;
+  }
+
+  @Override
+  public ReplyStream<T> endHandler(Handler<Void> handler) {
+    this.endHandler = handler;
+    return this;
+  }
+}
@@ -15,11 +15,17 @@
  */
 package io.vertx.redis.client.impl;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.redis.client.Request;
 import io.vertx.redis.client.Command;
 
 import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -33,11 +39,27 @@ public final class RequestImpl implements Request {
   private static final byte[] NULL_BULK = "$-1\r\n".getBytes(StandardCharsets.ISO_8859_1);
   private static final byte[] EOL = "\r\n".getBytes(StandardCharsets.ISO_8859_1);
 
+  // buffer arguments at least this large are kept by reference and written as they are, smaller ones are cheaper to
+  // copy than to write as a separate component
+  static final int REFERENCE_THRESHOLD = 8 * 1024;
+
+  static final String INCOMPLETE = "Not all the placeholders of the prepared request are filled";
+
   private final Command cmd;
-  private final List<byte[]> args;
+  // each argument is either a byte[], a Long, a String (ASCII only), an Utf8 string or, for large buffers, the ByteBuf
+  // it references
+  private final List<Object> args;
+  private int references;
+  // the number of strings and numbers, which are only converted to bytes when encoded
+  private int values;
+  // the template of a prepared request, the arguments are the values of its placeholders
+  private final PreparedRequestImpl template;
+  // milliseconds, 0 for the default of the connection
+  private long timeout;
 
   public RequestImpl(Command cmd) {
     this.cmd = cmd;
+    this.template = null;
 
     if (cmd.getArity() != 0) {
       args = new ArrayList<>(Math.abs(cmd.getArity()));
@@ -46,18 +68,52 @@ public final class RequestImpl implements Request {
     }
   }
 
+  /**
+   * @param capacity the number of arguments the request will hold.
+   */
+  RequestImpl(Command cmd, int capacity) {
+    this.cmd = cmd;
+    this.template = null;
+    args = new ArrayList<>(capacity);
+  }
+
+  RequestImpl(PreparedRequestImpl template) {
+    this.cmd = template.command();
+    this.template = template;
+    args = new ArrayList<>(template.placeholders());
+  }
+
   @Override
   public Command command() {
     return cmd;
   }
 
+  @Override
+  public Request timeout(long timeout) {
+    this.timeout = timeout;
+    return this;
+  }
+
+  long timeout() {
+    return timeout;
+  }
+
   // arguments
 
+  private void add(Object arg) {
+    if (template != null && args.size() == template.placeholders()) {
+      throw new IllegalStateException("All the placeholders of the prepared request are already filled");
+    }
+    args.add(arg);
+  }
+
   // integer
 
   @Override
   public Request arg(long arg) {
-    args.add(numToBytes(arg));
+    // the digits are written straight into the output buffer
+    add(arg);
+    values++;
     return this;
   }
 
@@ -65,24 +121,32 @@ public final class RequestImpl implements Request {
 
   @Override
   public Request nullArg() {
-    args.add(null);
+    add(null);
     return this;
   }
 
   // bulk string
 
   @Override
-  public Request arg(byte[] arg) {
+  public Request arg(String arg) {
     if (arg == null) {
       return nullArg();
     }
 
-    if (arg.length == 0) {
-      args.add(arg);
-      return this;
+    // the string is encoded straight into the output buffer, most arguments (e.g.: keys) are ASCII and need nothing
+    // else, for the others the UTF-8 length is computed once
+    add(isAscii(arg) ? arg : new Utf8(arg));
+    values++;
+    return this;
+  }
+
+  @Override
+  public Request arg(byte[] arg) {
+    if (arg == null) {
+      return nullArg();
     }
 
-    args.add(arg);
+    add(arg);
     return this;
   }
 
@@ -93,55 +157,286 @@ public final class RequestImpl implements Request {
     }
 
     if (arg.length() == 0) {
-      args.add(EMPTY_BYTES);
+      add(EMPTY_BYTES);
+      return this;
+    }
+
+    if (arg.length() >= REFERENCE_THRESHOLD) {
+      // the payload is not copied, it is written straight from the buffer
+      add(arg.getByteBuf());
+      references++;
       return this;
     }
 
-    args.add(arg.getBytes());
+    add(arg.getBytes());
     return this;
   }
 
+  /**
+   * @return false when this is a prepared request with placeholders not yet filled.
+   */
+  boolean complete() {
+    return template == null || args.size() == template.placeholders();
+  }
+
   Buffer encode() {
-    return encode(Buffer.buffer());
+    final int length = encodedLength();
+    return Buffer.buffer(encode(Unpooled.buffer(length, length)));
+  }
+
+  /**
+   * @return the exact number of bytes of the encoded request.
+   */
+  int encodedLength() {
+    int length;
+    if (template == null) {
+      // array header and command
+      length = 1 + numLength(args.size() + 1) + 2 + cmd.getBytes().length;
+    } else {
+      // already encoded
+      length = template.encodedLength();
+    }
+
+    for (final Object arg : args) {
+      length += bulkLength(arg);
+    }
+
+    return length;
+  }
+
+  static int bulkLength(Object arg) {
+    if (arg == null) {
+      return NULL_BULK.length;
+    }
+    final int size = size(arg);
+    if (size == 0) {
+      return EMPTY_BULK.length;
+    }
+    return 1 + numLength(size) + 2 + size + 2;
+  }
+
+  /**
+   * @return true when some argument is kept by reference, such a request should be encoded with
+   * {@link #encode(CompositeByteBuf, ByteBufAllocator)}.
+   */
+  boolean hasReferences() {
+    return references > 0;
+  }
+
+  private static int size(Object arg) {
+    if (arg instanceof byte[]) {
+      return ((byte[]) arg).length;
+    }
+    if (arg instanceof String) {
+      return ((String) arg).length();
+    }
+    if (arg instanceof Long) {
+      return numLength((Long) arg);
+    }
+    if (arg instanceof Utf8) {
+      return ((Utf8) arg).length;
+    }
+    return ((ByteBuf) arg).readableBytes();
+  }
+
+  /**
+   * Writes the bytes of an argument that is not kept by reference.
+   */
+  private static void write(ByteBuf buffer, Object arg) {
+    if (arg instanceof byte[]) {
+      buffer.writeBytes((byte[]) arg);
+    } else if (arg instanceof String) {
+      ByteBufUtil.writeAscii(buffer, (String) arg);
+    } else if (arg instanceof Long) {
+      writeNum(buffer, (Long) arg);
+    } else {
+      final Utf8 utf8 = (Utf8) arg;
+      ByteBufUtil.reserveAndWriteUtf8(buffer, utf8.value, utf8.length);
+    }
   }
 
-  Buffer encode(Buffer buffer) {
+  ByteBuf encode(ByteBuf buffer) {
+    if (template == null) {
+      writeHeader(buffer, cmd, args.size());
+    } else {
+      buffer.writeBytes(template.fragment(0));
+    }
+
+    for (int i = 0; i < args.size(); i++) {
+      writeBulk(buffer, args.get(i));
+      if (template != null) {
+        buffer.writeBytes(template.fragment(i + 1));
+      }
+    }
+
+    return buffer;
+  }
+
+  /**
+   * Writes the array header and the command of a request with the given number of arguments.
+   */
+  static void writeHeader(ByteBuf buffer, Command cmd, int args) {
+    // array header
+    buffer.writeByte('*');
+    writeNum(buffer, args + 1);
     buffer
-      // array header
-      .appendByte((byte) '*')
-      .appendBytes(numToBytes(args.size() + 1))
-      .appendBytes(EOL)
+      .writeBytes(EOL)
       // command
-      .appendBytes(cmd.getBytes());
+      .writeBytes(cmd.getBytes());
+  }
+
+  /**
+   * Writes an argument as a bulk string, the arguments kept by reference are copied.
+   */
+  static void writeBulk(ByteBuf buffer, Object arg) {
+    if (arg == null) {
+      buffer.writeBytes(NULL_BULK);
+      return;
+    }
+
+    final int size = size(arg);
+
+    if (size == 0) {
+      buffer.writeBytes(EMPTY_BULK);
+      return;
+    }
 
-    for (final byte[] arg : args) {
-      if (arg == null) {
-        buffer.appendBytes(NULL_BULK);
-        continue;
+    buffer.writeByte('$');
+    writeNum(buffer, size);
+    buffer.writeBytes(EOL);
+    if (arg instanceof ByteBuf) {
+      final ByteBuf bytes = (ByteBuf) arg;
+      buffer.writeBytes(bytes, bytes.readerIndex(), size);
+    } else {
+      write(buffer, arg);
+    }
+    buffer.writeBytes(EOL);
+  }
+
+  /**
+   * Encodes the request as components of the given composite. The framing is written to a single buffer of the
+   * allocator, sliced around the arguments kept by reference, which are added as they are.
+   */
+  void encode(CompositeByteBuf out, ByteBufAllocator alloc) {
+    final ByteBuf framing = alloc.ioBuffer(encodedLength() - referencedBytes());
+    try {
+      if (template == null) {
+        writeHeader(framing, cmd, args.size());
+      } else {
+        framing.writeBytes(template.fragment(0));
       }
 
-      if (arg.length == 0) {
-        buffer.appendBytes(EMPTY_BULK);
-        continue;
+      int start = 0;
+
+      for (int i = 0; i < args.size(); i++) {
+        final Object arg = args.get(i);
+
+        if (arg instanceof ByteBuf) {
+          framing.writeByte('$');
+          writeNum(framing, size(arg));
+          framing.writeBytes(EOL);
+          // the framing so far, then the payload itself
+          out.addComponent(true, framing.retainedSlice(start, framing.writerIndex() - start));
+          out.addComponent(true, ((ByteBuf) arg).retainedDuplicate());
+          start = framing.writerIndex();
+          framing.writeBytes(EOL);
+        } else {
+          writeBulk(framing, arg);
+        }
+
+        if (template != null) {
+          framing.writeBytes(template.fragment(i + 1));
+        }
       }
 
-      buffer
-        .appendByte((byte) '$')
-        .appendBytes(numToBytes(arg.length))
-        .appendBytes(EOL)
-        .appendBytes(arg)
-        .appendBytes(EOL);
+      out.addComponent(true, framing.retainedSlice(start, framing.writerIndex() - start));
+    } finally {
+      // the slices hold the framing from here on
+      framing.release();
     }
+  }
 
-    return buffer;
+  private int referencedBytes() {
+    int length = 0;
+    if (references > 0) {
+      for (final Object arg : args) {
+        if (arg instanceof ByteBuf) {
+          length += ((ByteBuf) arg).readableBytes();
+        }
+      }
+    }
+    return length;
   }
 
   List<byte[]> getArgs() {
-    return args;
+    if (template != null) {
+      // the constant arguments of the template with the values of the placeholders
+      final List<byte[]> values = argsView();
+      return new AbstractList<byte[]>() {
+        @Override
+        public byte[] get(int index) {
+          final int slot = template.slot(index);
+          return slot == -1 ? template.arg(index) : values.get(slot);
+        }
+
+        @Override
+        public int size() {
+          return template.size();
+        }
+      };
+    }
+
+    return argsView();
+  }
+
+  private List<byte[]> argsView() {
+    if (references == 0 && values == 0) {
+      @SuppressWarnings("unchecked")
+      final List<byte[]> bytes = (List) args;
+      return bytes;
+    }
+
+    // strings, numbers and arguments kept by reference are only converted when accessed (e.g.: the keys, to find their
+    // slot)
+    return new AbstractList<byte[]>() {
+      @Override
+      public byte[] get(int index) {
+        final Object arg = args.get(index);
+        if (arg instanceof String) {
+          return ((String) arg).getBytes(StandardCharsets.ISO_8859_1);
+        }
+        if (arg instanceof Long) {
+          return numToBytes((Long) arg);
+        }
+        if (arg instanceof Utf8) {
+          return ((Utf8) arg).value.getBytes(StandardCharsets.UTF_8);
+        }
+        return arg instanceof ByteBuf ? ByteBufUtil.getBytes((ByteBuf) arg) : (byte[]) arg;
+      }
+
+      @Override
+      public int size() {
+        return args.size();
+      }
+    };
   }
 
   @Override
   public String toString() {
     return encode().toString();
   }
+
+  /**
+   * A string with non ASCII characters and its UTF-8 length.
+   */
+  private static final class Utf8 {
+
+    private final String value;
+    private final int length;
+
+    private Utf8(String value) {
+      this.value = value;
+      this.length = ByteBufUtil.utf8Bytes(value);
+    }
+  }
 }
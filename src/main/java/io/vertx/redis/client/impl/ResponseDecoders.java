@@ -0,0 +1,365 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * <p>
+ * The Eclipse Public License is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * <p>
+ * The Apache License v2.0 is available at
+ * http://www.opensource.org/licenses/apache2.0.php
+ * <p>
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.client.impl;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.redis.client.ResponseDecoder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * The built-in {@link ResponseDecoder}s.
+ */
+public final class ResponseDecoders {
+
+  private ResponseDecoders() {
+  }
+
+  /**
+   * Parses the ASCII digits of a string without decoding it first.
+   */
+  static long parseLong(Buffer value) {
+    final int length = value.length();
+    if (length == 0) {
+      throw new NumberFormatException("Empty string");
+    }
+    final boolean negative = value.getByte(0) == '-';
+    int i = negative ? 1 : 0;
+    if (i == length) {
+      throw new NumberFormatException("Not a number: -");
+    }
+    long number = 0;
+    for (; i < length; i++) {
+      final int digit = value.getByte(i) - '0';
+      if (digit < 0 || digit > 9) {
+        throw new NumberFormatException("Not a number: " + value.toString(StandardCharsets.ISO_8859_1));
+      }
+      // accumulate as a negative value so Long.MIN_VALUE can be represented
+      if (number < (Long.MIN_VALUE + digit) / 10) {
+        throw new NumberFormatException("Overflow: " + value.toString(StandardCharsets.ISO_8859_1));
+      }
+      number = number * 10 - digit;
+    }
+    if (!negative) {
+      if (number == Long.MIN_VALUE) {
+        throw new NumberFormatException("Overflow: " + value.toString(StandardCharsets.ISO_8859_1));
+      }
+      return -number;
+    }
+    return number;
+  }
+
+  public static final class LongDecoder implements ResponseDecoder<Long> {
+
+    private Long value;
+
+    @Override
+    public void onString(Buffer value) {
+      this.value = parseLong(value);
+    }
+
+    @Override
+    public void onInteger(long value) {
+      this.value = value;
+    }
+
+    @Override
+    public void onDouble(double value) {
+      this.value = (long) value;
+    }
+
+    @Override
+    public void onBoolean(boolean value) {
+      this.value = value ? 1L : 0L;
+    }
+
+    @Override
+    public Long result() {
+      return value;
+    }
+  }
+
+  public static final class DoubleDecoder implements ResponseDecoder<Double> {
+
+    private Double value;
+
+    @Override
+    public void onString(Buffer value) {
+      this.value = Double.parseDouble(value.toString(StandardCharsets.ISO_8859_1));
+    }
+
+    @Override
+    public void onInteger(long value) {
+      this.value = (double) value;
+    }
+
+    @Override
+    public void onDouble(double value) {
+      this.value = value;
+    }
+
+    @Override
+    public Double result() {
+      return value;
+    }
+  }
+
+  public static final class StringDecoder implements ResponseDecoder<String> {
+
+    private String value;
+
+    @Override
+    public void onString(Buffer value) {
+      this.value = value.toString(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void onInteger(long value) {
+      this.value = Long.toString(value);
+    }
+
+    @Override
+    public void onDouble(double value) {
+      this.value = Double.toString(value);
+    }
+
+    @Override
+    public void onBoolean(boolean value) {
+      this.value = Boolean.toString(value);
+    }
+
+    @Override
+    public String result() {
+      return value;
+    }
+  }
+
+  public static final class BytesDecoder implements ResponseDecoder<byte[]> {
+
+    private byte[] value;
+
+    @Override
+    public void onString(Buffer value) {
+      this.value = value.getBytes();
+    }
+
+    @Override
+    public void onInteger(long value) {
+      this.value = Long.toString(value).getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    @Override
+    public byte[] result() {
+      return value;
+    }
+  }
+
+  /**
+   * Base for the decoders of flat multis, nested multis are not supported.
+   */
+  private abstract static class FlatDecoder<T> implements ResponseDecoder<T> {
+
+    private boolean started;
+
+    @Override
+    public void onString(Buffer value) {
+      element(value.toString(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void onInteger(long value) {
+      element(Long.toString(value));
+    }
+
+    @Override
+    public void onDouble(double value) {
+      element(Double.toString(value));
+    }
+
+    @Override
+    public void onBoolean(boolean value) {
+      element(Boolean.toString(value));
+    }
+
+    @Override
+    public void onNull() {
+      if (started) {
+        element(null);
+      }
+    }
+
+    @Override
+    public void onArrayStart(int size) {
+      if (started) {
+        throw new IllegalStateException("Unexpected nested multi in the reply");
+      }
+      started = true;
+      start(size);
+    }
+
+    abstract void start(int size);
+
+    void element(String value) {
+      if (!started) {
+        throw new IllegalStateException("Reply is not a multi");
+      }
+    }
+  }
+
+  public static final class ListDecoder extends FlatDecoder<List<String>> {
+
+    private List<String> value;
+
+    @Override
+    void start(int size) {
+      value = new ArrayList<>(size);
+    }
+
+    @Override
+    void element(String value) {
+      super.element(value);
+      this.value.add(value);
+    }
+
+    @Override
+    public List<String> result() {
+      return value;
+    }
+  }
+
+  public static final class MapDecoder extends FlatDecoder<Map<String, String>> {
+
+    private Map<String, String> value;
+    private String key;
+    private boolean isKey = true;
+
+    @Override
+    void start(int size) {
+      // keys and values alternate, sized so the map never rehashes
+      value = new HashMap<>((int) (size / 2 / 0.75f) + 1);
+    }
+
+    @Override
+    void element(String value) {
+      super.element(value);
+      if (isKey) {
+        key = value;
+      } else {
+        this.value.put(key, value);
+        key = null;
+      }
+      isKey = !isKey;
+    }
+
+    @Override
+    public Map<String, String> result() {
+      return value;
+    }
+  }
+
+  public static final class JsonDecoder implements ResponseDecoder<JsonObject> {
+
+    // the containers being built, the top level one is always an object
+    private final Deque<Object> containers = new ArrayDeque<>();
+    private JsonObject value;
+    // the key of the next value when the current container is an object
+    private String key;
+
+    @Override
+    public void onString(Buffer value) {
+      add(value.toString(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void onInteger(long value) {
+      add(value);
+    }
+
+    @Override
+    public void onDouble(double value) {
+      add(value);
+    }
+
+    @Override
+    public void onBoolean(boolean value) {
+      add(value);
+    }
+
+    @Override
+    public void onNull() {
+      if (!containers.isEmpty()) {
+        add(null);
+      }
+    }
+
+    @Override
+    public void onArrayStart(int size) {
+      // the top level multi holds key, value pairs
+      start(containers.isEmpty() ? new JsonObject() : new JsonArray(new ArrayList<>(size)));
+    }
+
+    @Override
+    public void onMapStart(int size) {
+      start(new JsonObject());
+    }
+
+    @Override
+    public void onArrayEnd() {
+      containers.pop();
+      key = null;
+    }
+
+    private void start(Object container) {
+      if (containers.isEmpty()) {
+        value = (JsonObject) container;
+      } else {
+        add(container);
+      }
+      containers.push(container);
+    }
+
+    private void add(Object value) {
+      final Object container = containers.peek();
+
+      if (container == null) {
+        throw new IllegalStateException("Reply is not a multi");
+      }
+
+      if (container instanceof JsonArray) {
+        ((JsonArray) container).add(value);
+        return;
+      }
+
+      if (key == null) {
+        if (value == null || value instanceof JsonObject || value instanceof JsonArray) {
+          throw new IllegalStateException("Unexpected key in the reply: " + value);
+        }
+        key = value.toString();
+      } else {
+        ((JsonObject) container).put(key, value);
+        key = null;
+      }
+    }
+
+    @Override
+    public JsonObject result() {
+      return value;
+    }
+  }
+}
@@ -0,0 +1,322 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * <p>
+ * The Eclipse Public License is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * <p>
+ * The Apache License v2.0 is available at
+ * http://www.opensource.org/licenses/apache2.0.php
+ * <p>
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.client.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.impl.logging.Logger;
+import io.vertx.core.impl.logging.LoggerFactory;
+import io.vertx.redis.client.Command;
+import io.vertx.redis.client.RedisConnection;
+import io.vertx.redis.client.Request;
+import io.vertx.redis.client.Response;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The shared connections of a client. Any number of callers send their requests through a small fixed set of long
+ * lived, pipelined connections, picked round robin, instead of checking out a connection for each use. Connections are
+ * established on first use and replaced once they are closed or fail.
+ *
+ * Requests that cannot share a connection are routed elsewhere: blocking commands and batches with transactions go
+ * through a dedicated connection of the client, which is closed as soon as the reply arrives. Commands that change the
+ * state of the connection for good (pub/sub, {@code SELECT}, {@code AUTH}, {@code CLIENT REPLY}...) or only make sense on a connection of their own (a
+ * lone {@code MULTI}, {@code WATCH}...) are rejected, they need a connection from {@link io.vertx.redis.client.Redis#connect}.
+ */
+final class SharedConnections {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SharedConnections.class);
+
+  // commands that hold the connection until they are answered
+  private static final Set<Command> BLOCKING = new HashSet<>(Arrays.asList(
+    Command.BLPOP, Command.BRPOP, Command.BRPOPLPUSH, Command.BZPOPMIN, Command.BZPOPMAX, Command.WAIT));
+
+  // commands that can only be blocking with the BLOCK option
+  private static final Set<Command> MAYBE_BLOCKING = new HashSet<>(Arrays.asList(
+    Command.XREAD, Command.XREADGROUP));
+
+  // commands whose effect lasts until the next ones, they are fine in a batch of their own
+  private static final Set<Command> TRANSACTION = new HashSet<>(Arrays.asList(
+    Command.MULTI, Command.EXEC, Command.DISCARD, Command.WATCH, Command.UNWATCH));
+
+  // commands that change the connection for good, for every caller sharing it (e.g.: CLIENT REPLY OFF leaves the
+  // replies out of step with the requests)
+  private static final Set<Command> STATEFUL = new HashSet<>(Arrays.asList(
+    Command.SUBSCRIBE, Command.PSUBSCRIBE, Command.UNSUBSCRIBE, Command.PUNSUBSCRIBE, Command.MONITOR, Command.SELECT,
+    Command.HELLO, Command.SYNC, Command.PSYNC, Command.AUTH, Command.CLIENT, Command.READONLY, Command.READWRITE));
+
+  private static final String BLOCK = "BLOCK";
+
+  private static final String NOT_SHAREABLE =
+    "The command changes the state of the connection, it needs a connection of its own (see Redis#connect)";
+
+  private final Handler<Handler<AsyncResult<RedisConnection>>> shared;
+  private final Handler<Handler<AsyncResult<RedisConnection>>> dedicated;
+  private final Slot[] slots;
+  private final AtomicInteger next = new AtomicInteger();
+  private volatile boolean closed;
+
+  /**
+   * @param size the number of shared connections.
+   * @param shared creates a shared connection, outside of the pool of the client.
+   * @param dedicated creates a dedicated connection outside of the pool of the client, closed once used.
+   */
+  SharedConnections(int size, Handler<Handler<AsyncResult<RedisConnection>>> shared, Handler<Handler<AsyncResult<RedisConnection>>> dedicated) {
+    if (size < 1) {
+      throw new IllegalArgumentException("Invalid options: sharedConnections must be at least 1");
+    }
+    this.shared = shared;
+    this.dedicated = dedicated;
+    this.slots = new Slot[size];
+    for (int i = 0; i < size; i++) {
+      slots[i] = new Slot();
+    }
+  }
+
+  void send(Request request, Handler<AsyncResult<Response>> handler) {
+    final Command cmd = request.command();
+
+    if (STATEFUL.contains(cmd) || TRANSACTION.contains(cmd)) {
+      handler.handle(Future.failedFuture(NOT_SHAREABLE));
+      return;
+    }
+
+    if (isBlocking(request)) {
+      dedicated.handle(connect -> {
+        if (connect.failed()) {
+          handler.handle(Future.failedFuture(connect.cause()));
+          return;
+        }
+        final RedisConnection connection = connect.result();
+        connection.send(request, send -> {
+          close(connection);
+          handler.handle(send);
+        });
+      });
+      return;
+    }
+
+    acquire(acquire -> {
+      if (acquire.failed()) {
+        handler.handle(Future.failedFuture(acquire.cause()));
+      } else {
+        acquire.result().send(request, handler);
+      }
+    });
+  }
+
+  void batch(List<Request> requests, Handler<AsyncResult<List<Response>>> handler) {
+    boolean exclusive = false;
+
+    for (Request request : requests) {
+      final Command cmd = request.command();
+      if (STATEFUL.contains(cmd)) {
+        handler.handle(Future.failedFuture(NOT_SHAREABLE));
+        return;
+      }
+      exclusive |= TRANSACTION.contains(cmd) || isBlocking(request);
+    }
+
+    if (exclusive) {
+      dedicated.handle(connect -> {
+        if (connect.failed()) {
+          handler.handle(Future.failedFuture(connect.cause()));
+          return;
+        }
+        final RedisConnection connection = connect.result();
+        connection.batch(requests, batch -> {
+          close(connection);
+          handler.handle(batch);
+        });
+      });
+      return;
+    }
+
+    acquire(acquire -> {
+      if (acquire.failed()) {
+        handler.handle(Future.failedFuture(acquire.cause()));
+      } else {
+        acquire.result().batch(requests, handler);
+      }
+    });
+  }
+
+  private static boolean isBlocking(Request request) {
+    final Command cmd = request.command();
+
+    if (BLOCKING.contains(cmd)) {
+      return true;
+    }
+
+    if (MAYBE_BLOCKING.contains(cmd)) {
+      for (byte[] arg : ((RequestImpl) request).getArgs()) {
+        if (arg != null && arg.length == BLOCK.length() && BLOCK.equalsIgnoreCase(new String(arg, StandardCharsets.ISO_8859_1))) {
+          return true;
+        }
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Picks the next shared connection, connections with a full waiting queue are skipped unless all of them are.
+   */
+  private void acquire(Handler<AsyncResult<RedisConnection>> handler) {
+    if (closed) {
+      handler.handle(Future.failedFuture("Client is closed"));
+      return;
+    }
+
+    final int start = next.getAndIncrement();
+    Slot slot = slots[Math.floorMod(start, slots.length)];
+
+    for (int i = 1; i < slots.length; i++) {
+      final RedisConnection connection = slot.connection;
+      if (connection == null || !connection.pendingQueueFull()) {
+        break;
+      }
+      slot = slots[Math.floorMod(start + i, slots.length)];
+    }
+
+    slot.get(handler);
+  }
+
+  /**
+   * Closes the shared connections in use, the next callers establish new ones (e.g.: after a failover).
+   */
+  void reset() {
+    for (Slot slot : slots) {
+      slot.close();
+    }
+  }
+
+  /**
+   * Closes all the shared connections.
+   */
+  void close() {
+    closed = true;
+    reset();
+  }
+
+  private static void close(RedisConnection connection) {
+    // not pooled, the sockets must be closed
+    if (connection instanceof RedisConnectionImpl) {
+      ((RedisConnectionImpl) connection).forceClose();
+    } else if (connection instanceof RedisClusterConnection) {
+      ((RedisClusterConnection) connection).forceClose();
+    } else {
+      connection.close();
+    }
+  }
+
+  private final class Slot {
+
+    private volatile RedisConnection connection;
+    // the callers waiting for the connection to be established, null when not connecting
+    private List<Handler<AsyncResult<RedisConnection>>> waiters;
+
+    void get(Handler<AsyncResult<RedisConnection>> handler) {
+      RedisConnection conn = connection;
+
+      if (conn == null) {
+        synchronized (this) {
+          conn = connection;
+          if (conn == null) {
+            final boolean connecting = waiters != null;
+            if (!connecting) {
+              waiters = new ArrayList<>();
+            }
+            waiters.add(handler);
+            if (connecting) {
+              return;
+            }
+          }
+        }
+        if (conn == null) {
+          connect();
+          return;
+        }
+      }
+
+      handler.handle(Future.succeededFuture(conn));
+    }
+
+    private void connect() {
+      shared.handle(connect -> {
+        final List<Handler<AsyncResult<RedisConnection>>> ready;
+        AsyncResult<RedisConnection> result = connect;
+
+        synchronized (this) {
+          ready = waiters;
+          waiters = null;
+          if (connect.succeeded()) {
+            final RedisConnection conn = connect.result();
+            if (closed) {
+              SharedConnections.close(conn);
+              result = Future.failedFuture("Client is closed");
+            } else {
+              conn
+                .endHandler(v -> drop(conn))
+                .exceptionHandler(t -> {
+                  LOG.error("Shared connection failed", t);
+                  if (drop(conn)) {
+                    SharedConnections.close(conn);
+                  }
+                });
+              connection = conn;
+            }
+          }
+        }
+
+        for (Handler<AsyncResult<RedisConnection>> waiter : ready) {
+          waiter.handle(result);
+        }
+      });
+    }
+
+    /**
+     * Forgets the connection, the next caller establishes a new one.
+     *
+     * @return true when the connection was the one of this slot.
+     */
+    private synchronized boolean drop(RedisConnection conn) {
+      if (connection == conn) {
+        connection = null;
+        return true;
+      }
+      return false;
+    }
+
+    void close() {
+      final RedisConnection conn;
+      synchronized (this) {
+        conn = connection;
+        connection = null;
+      }
+      if (conn != null) {
+        SharedConnections.close(conn);
+      }
+    }
+  }
+}
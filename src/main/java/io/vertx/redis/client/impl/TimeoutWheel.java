@@ -0,0 +1,181 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * <p>
+ * The Eclipse Public License is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * <p>
+ * The Apache License v2.0 is available at
+ * http://www.opensource.org/licenses/apache2.0.php
+ * <p>
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.client.impl;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A hashed timing wheel holding the deadlines of the requests waiting on a connection. The wheel is advanced by a
+ * single periodic timer, adding a deadline is a couple of array stores and no timer is ever cancelled: a request that
+ * got its reply is simply dropped the next time its slot is visited.
+ *
+ * The current tick is derived from the clock, not from the number of timer callbacks: when the event loop is busy and
+ * the timer fires late, all the slots missed since the previous callback are visited at once.
+ *
+ * Requests are identified by their sequence number on the connection, as replies arrive in order a request has its
+ * reply as soon as the sequence number of the oldest waiting request is past its own.
+ */
+final class TimeoutWheel {
+
+  // the resolution of the deadlines in milliseconds
+  static final long TICK = 10;
+  private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(TICK);
+
+  // each slot holds (sequence, deadline tick) pairs, the deadlines of a slot are the same modulo the wheel size
+  private final long[][] slots;
+  private final int[] sizes;
+  private final int mask;
+  // the time of tick 0, in nanoseconds
+  private final long origin;
+
+  // the last tick whose slot was visited
+  private long tick;
+  private int count;
+  // the highest sequence number added so far
+  private long last = -1;
+
+  /**
+   * @param size the number of slots, a power of 2.
+   * @param now the current time in nanoseconds (see {@link System#nanoTime()}).
+   */
+  TimeoutWheel(int size, long now) {
+    if (Integer.bitCount(size) != 1) {
+      throw new IllegalArgumentException("size must be a power of 2");
+    }
+    slots = new long[size][];
+    sizes = new int[size];
+    mask = size - 1;
+    origin = now;
+  }
+
+  /**
+   * Adds the deadline of a request.
+   *
+   * @param sequence the sequence number of the request.
+   * @param timeout the time in milliseconds the request can wait for its reply.
+   * @param now the current time in nanoseconds.
+   */
+  void add(long sequence, long timeout, long now) {
+    // rounded up, a request never expires early, even when the wheel is behind the clock
+    final long deadline = Math.max(tick, ticks(now)) + Math.max(1, (timeout + TICK - 1) / TICK);
+    final int index = (int) (deadline & mask);
+
+    long[] slot = slots[index];
+    final int size = sizes[index];
+
+    if (slot == null) {
+      slot = slots[index] = new long[8];
+    } else if (2 * size == slot.length) {
+      slot = slots[index] = Arrays.copyOf(slot, slot.length * 2);
+    }
+
+    slot[2 * size] = sequence;
+    slot[2 * size + 1] = deadline;
+    sizes[index] = size + 1;
+    count++;
+    last = Math.max(last, sequence);
+  }
+
+  /**
+   * Advances the wheel to the current time, visiting every slot since the previous call.
+   *
+   * @param answered the sequence number of the oldest request still waiting for its reply.
+   * @param now the current time in nanoseconds.
+   * @return the sequence number of a request that is past its deadline, or -1 when there is none.
+   */
+  long advance(long answered, long now) {
+    final long target = Math.max(tick, ticks(now));
+    // a whole round visits every slot, the ticks of the rounds before have nothing else to visit
+    final long from = Math.max(tick, target - slots.length);
+    tick = target;
+
+    if (count == 0) {
+      return -1;
+    }
+
+    if (answered > last) {
+      // every request has its reply, there is no need to visit the slots one by one
+      clear();
+      return -1;
+    }
+
+    long expired = -1;
+
+    for (long t = from + 1; t <= target && count > 0; t++) {
+      final long sequence = visit((int) (t & mask), answered, target);
+      if (sequence != -1) {
+        expired = expired == -1 ? sequence : Math.min(expired, sequence);
+      }
+    }
+
+    return expired;
+  }
+
+  /**
+   * Drops the answered and expired requests of a slot.
+   *
+   * @return the lowest sequence number of the expired requests, or -1 when there is none.
+   */
+  private long visit(int index, long answered, long target) {
+    final long[] slot = slots[index];
+    final int size = sizes[index];
+    long expired = -1;
+    int kept = 0;
+
+    for (int i = 0; i < size; i++) {
+      final long sequence = slot[2 * i];
+      final long deadline = slot[2 * i + 1];
+
+      if (sequence < answered) {
+        // answered in time
+        continue;
+      }
+      if (deadline <= target) {
+        expired = expired == -1 ? sequence : Math.min(expired, sequence);
+        continue;
+      }
+      // a deadline of a later round
+      slot[2 * kept] = sequence;
+      slot[2 * kept + 1] = deadline;
+      kept++;
+    }
+
+    sizes[index] = kept;
+    count -= size - kept;
+
+    return expired;
+  }
+
+  private long ticks(long now) {
+    return (now - origin) / TICK_NANOS;
+  }
+
+  /**
+   * @return true when no deadline is tracked.
+   */
+  boolean isEmpty() {
+    return count == 0;
+  }
+
+  /**
+   * Drops all the deadlines.
+   */
+  void clear() {
+    Arrays.fill(sizes, 0);
+    count = 0;
+  }
+}
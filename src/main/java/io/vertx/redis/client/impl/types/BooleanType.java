@@ -0,0 +1,61 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * <p>
+ * The Eclipse Public License is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * <p>
+ * The Apache License v2.0 is available at
+ * http://www.opensource.org/licenses/apache2.0.php
+ * <p>
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.client.impl.types;
+
+import io.vertx.redis.client.Response;
+import io.vertx.redis.client.ResponseType;
+
+public final class BooleanType implements Response {
+
+  public static final BooleanType TRUE = new BooleanType(true);
+  public static final BooleanType FALSE = new BooleanType(false);
+
+  public static BooleanType create(boolean value) {
+    return value ? TRUE : FALSE;
+  }
+
+  private final boolean value;
+
+  private BooleanType(boolean value) {
+    this.value = value;
+  }
+
+  @Override
+  public ResponseType type() {
+    return ResponseType.BOOLEAN;
+  }
+
+  @Override
+  public Boolean toBoolean() {
+    return value;
+  }
+
+  @Override
+  public Long toLong() {
+    // same as the RESP2 integer replies
+    return value ? 1L : 0L;
+  }
+
+  @Override
+  public Integer toInteger() {
+    return value ? 1 : 0;
+  }
+
+  @Override
+  public String toString() {
+    return Boolean.toString(value);
+  }
+}
@@ -20,6 +20,21 @@ import io.vertx.redis.client.ResponseType;
 
 public final class ErrorType extends Throwable implements Response {
 
+  // the kinds checked by the client (and the most frequent ones) are shared instead of being a substring per error
+  private static final String[] KINDS = {
+    "ERR", "WRONGTYPE", "MOVED", "ASK", "TRYAGAIN", "CLUSTERDOWN", "NOSCRIPT", "NOAUTH", "LOADING", "BUSY", "EXECABORT",
+    "READONLY", "OOM", "MASTERDOWN", "NOPERM"
+  };
+
+  // errors that always have the same message are singletons (errors carry no stack trace, so they can be shared)
+  public static final ErrorType NOSCRIPT = new ErrorType("NOSCRIPT No matching script. Please use EVAL.");
+  public static final ErrorType WRONGTYPE = new ErrorType("WRONGTYPE Operation against a key holding the wrong kind of value");
+  public static final ErrorType NOAUTH = new ErrorType("NOAUTH Authentication required.");
+  public static final ErrorType LOADING = new ErrorType("LOADING Redis is loading the dataset in memory");
+  public static final ErrorType EXECABORT = new ErrorType("EXECABORT Transaction discarded because of previous errors.");
+  public static final ErrorType CLUSTERDOWN = new ErrorType("CLUSTERDOWN The cluster is down");
+  public static final ErrorType TRYAGAIN = new ErrorType("TRYAGAIN Multiple keys request during rehashing of slot");
+
   public static ErrorType create(String message) {
     return new ErrorType(message);
   }
@@ -32,7 +47,7 @@ public final class ErrorType extends Throwable implements Response {
     if (message != null) {
       for (int i = 0; i < message.length(); i++) {
         if (message.charAt(i) == ' ') {
-          kind = message.substring(0, i);
+          kind = kind(message, i);
           return;
         }
       }
@@ -40,6 +55,15 @@ public final class ErrorType extends Throwable implements Response {
     kind = message;
   }
 
+  private static String kind(String message, int length) {
+    for (String kind : KINDS) {
+      if (kind.length() == length && message.startsWith(kind)) {
+        return kind;
+      }
+    }
+    return message.substring(0, length);
+  }
+
   @Override
   public ResponseType type() {
     return ResponseType.ERROR;
@@ -49,7 +73,8 @@ public final class ErrorType extends Throwable implements Response {
     if (this.kind == null) {
       return kind == null;
     } else {
-      return this.kind.equalsIgnoreCase(kind);
+      // shared kinds are usually checked with the same constant
+      return this.kind == kind || this.kind.equalsIgnoreCase(kind);
     }
   }
 
@@ -20,11 +20,25 @@ import io.vertx.redis.client.ResponseType;
 
 public final class IntegerType implements Response {
 
-  public static IntegerType create(Long value) {
+  // most integer replies are flags (0, 1), -1 (missing TTL) or small counts, those are shared
+  private static final int CACHE_LOW = -1;
+  private static final int CACHE_HIGH = 1024;
+  private static final IntegerType[] CACHE = new IntegerType[CACHE_HIGH - CACHE_LOW + 1];
+
+  static {
+    for (int i = 0; i < CACHE.length; i++) {
+      CACHE[i] = new IntegerType(i + CACHE_LOW);
+    }
+  }
+
+  public static IntegerType create(long value) {
+    if (value >= CACHE_LOW && value <= CACHE_HIGH) {
+      return CACHE[(int) value - CACHE_LOW];
+    }
     return new IntegerType(value);
   }
 
-  private final Long value;
+  private final long value;
 
   private IntegerType(long value) {
     this.value = value;
@@ -34,10 +48,10 @@ public final class IntegerType implements Response {
   public ResponseType type() {
     return ResponseType.INTEGER;
   }
-  
+
   @Override
   public Integer toInteger() {
-    return value.intValue();
+    return (int) value;
   }
 
   @Override
@@ -45,8 +59,23 @@ public final class IntegerType implements Response {
     return value;
   }
 
+  @Override
+  public Short toShort() {
+    return (short) value;
+  }
+
+  @Override
+  public Byte toByte() {
+    return (byte) value;
+  }
+
+  @Override
+  public Boolean toBoolean() {
+    return value == 1L;
+  }
+
   @Override
   public String toString() {
-    return value.toString();
+    return Long.toString(value);
   }
 }
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * <p>
+ * The Eclipse Public License is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * <p>
+ * The Apache License v2.0 is available at
+ * http://www.opensource.org/licenses/apache2.0.php
+ * <p>
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.client.impl.types;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.redis.client.Response;
+import io.vertx.redis.client.ResponseType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * A multi that is decoded on demand. The parser only records where each value of the reply frame is, in an index of
+ * 3 ints per value: the RESP type, and either the offset and length of the value in the frame, or for multis the number
+ * of elements and the number of index ints used by all nested values. Elements are only decoded when accessed.
+ */
+public final class LazyMultiType implements Response {
+
+  // ints per index entry
+  private static final int ENTRY = 3;
+
+  public static LazyMultiType create(Buffer frame, int[] index) {
+    return new LazyMultiType(frame, index, 0);
+  }
+
+  private final Buffer frame;
+  private final int[] index;
+  private final int entry;
+
+  // the last located element, makes sequential access linear
+  private int cursor;
+  private int cursorEntry;
+
+  private LazyMultiType(Buffer frame, int[] index, int entry) {
+    this.frame = frame;
+    this.index = index;
+    this.entry = entry;
+    this.cursor = 0;
+    this.cursorEntry = entry + ENTRY;
+  }
+
+  @Override
+  public ResponseType type() {
+    return index[entry] == '>' ? ResponseType.PUSH : ResponseType.MULTI;
+  }
+
+  /**
+   * @return true when the multi is a RESP3 map.
+   */
+  public boolean isMap() {
+    return index[entry] == '%';
+  }
+
+  @Override
+  public int size() {
+    return index[entry + 1];
+  }
+
+  @Override
+  public Response get(int i) {
+    if (i < 0 || i >= size()) {
+      throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size());
+    }
+    return decode(locate(i));
+  }
+
+  @Override
+  public Response get(String key) {
+    if (size() % 2 != 0) {
+      throw new RuntimeException("Number of key is not even");
+    }
+
+    final byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+
+    int pos = entry + ENTRY;
+    for (int i = 0; i < size(); i += 2) {
+      final int value = next(pos);
+      if (matches(pos, key, bytes)) {
+        return decode(value);
+      }
+      pos = next(value);
+    }
+    return null;
+  }
+
+  @Override
+  public Set<String> getKeys() {
+    if (size() % 2 != 0) {
+      throw new RuntimeException("Number of key is not even");
+    }
+
+    final Set<String> keys = new HashSet<>();
+    int pos = entry + ENTRY;
+    for (int i = 0; i < size(); i += 2) {
+      keys.add(String.valueOf(decode(pos)));
+      pos = next(next(pos));
+    }
+    return keys;
+  }
+
+  @Override
+  public Iterator<Response> iterator() {
+    return new Iterator<Response>() {
+      private int idx = 0;
+      private int pos = entry + ENTRY;
+
+      @Override
+      public boolean hasNext() {
+        return idx < size();
+      }
+
+      @Override
+      public Response next() {
+        if (idx >= size()) {
+          throw new NoSuchElementException();
+        }
+        final Response response = decode(pos);
+        pos = LazyMultiType.this.next(pos);
+        idx++;
+        return response;
+      }
+    };
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder();
+
+    sb.append('[');
+    boolean more = false;
+    for (Response r : this) {
+      if (more) {
+        sb.append(", ");
+      }
+
+      if (r == null) {
+        sb.append("null");
+      } else {
+        sb.append(r.toString());
+      }
+      more = true;
+    }
+    sb.append(']');
+
+    return sb.toString();
+  }
+
+  private int locate(int i) {
+    if (i < cursor) {
+      cursor = 0;
+      cursorEntry = entry + ENTRY;
+    }
+    while (cursor < i) {
+      cursorEntry = next(cursorEntry);
+      cursor++;
+    }
+    return cursorEntry;
+  }
+
+  private int next(int pos) {
+    // skip the nested values of multis
+    return isMulti(index[pos]) ? pos + ENTRY + index[pos + 2] : pos + ENTRY;
+  }
+
+  private boolean matches(int pos, String key, byte[] bytes) {
+    final int type = index[pos];
+    if (type != '$' && type != '+') {
+      // not a string, compare the decoded form
+      final Response response = decode(pos);
+      return response != null && key.equals(response.toString());
+    }
+    // compare the bytes in place, no need to decode
+    final int offset = index[pos + 1];
+    final int length = index[pos + 2];
+    if (length != bytes.length) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (frame.getByte(offset + i) != bytes[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private Response decode(int pos) {
+    final int type = index[pos];
+    final int offset = index[pos + 1];
+    final int length = index[pos + 2];
+
+    switch (type) {
+      case '_':
+        return null;
+      case '+':
+        if (length == 2 && frame.getByte(offset) == 'O' && frame.getByte(offset + 1) == 'K') {
+          return SimpleStringType.OK;
+        }
+        return SimpleStringType.create(frame.getString(offset, offset + length, "ISO-8859-1"));
+      case '-':
+      case '!':
+        return ErrorType.create(frame.getString(offset, offset + length, "ISO-8859-1"));
+      case ':':
+        return IntegerType.create(parseLong(offset, length));
+      case '$':
+        return BulkType.create(frame.slice(offset, offset + length));
+      case '=':
+        // verbatim strings start with the 3 chars format and a colon (e.g.: txt:)
+        return BulkType.create(length >= 4 ? frame.slice(offset + 4, offset + length) : frame.slice(offset, offset + length));
+      case ',':
+        return NumberType.createDouble(frame.getString(offset, offset + length, "ISO-8859-1"));
+      case '(':
+        return NumberType.createBigNumber(frame.getString(offset, offset + length, "ISO-8859-1"));
+      case '#':
+        return BooleanType.create(frame.getByte(offset) == 't');
+      default:
+        return new LazyMultiType(frame, index, pos);
+    }
+  }
+
+  private long parseLong(int offset, int length) {
+    final boolean negative = frame.getByte(offset) == '-';
+    long value = 0;
+    for (int i = negative ? 1 : 0; i < length; i++) {
+      value = value * 10 + (frame.getByte(offset + i) - '0');
+    }
+    return negative ? -value : value;
+  }
+
+  private static boolean isMulti(int type) {
+    return type == '*' || type == '%' || type == '~' || type == '>';
+  }
+}
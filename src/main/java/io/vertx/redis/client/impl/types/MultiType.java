@@ -23,30 +23,80 @@ import java.util.*;
 public final class MultiType implements Response {
 
   public static final MultiType EMPTY = new MultiType(new Response[0]);
+  public static final MultiType EMPTY_MAP = new MultiType(0, ResponseType.MULTI, true, false);
 
   public static MultiType create(int length) {
     return new MultiType(length);
   }
+
   public static MultiType create(Response[] replies) {
     return new MultiType(replies);
   }
 
+  /**
+   * Creates a RESP3 map, the entries are flattened as key, value pairs.
+   */
+  public static MultiType createMap(int entries) {
+    return new MultiType(entries * 2, ResponseType.MULTI, true, false);
+  }
+
+  /**
+   * Creates a RESP3 push message.
+   */
+  public static MultiType createPush(int length) {
+    return new MultiType(length, ResponseType.PUSH, false, false);
+  }
+
+  /**
+   * Creates a RESP3 attribute, attributes are a map describing the next reply.
+   */
+  public static MultiType createAttribute(int entries) {
+    return new MultiType(entries * 2, ResponseType.MULTI, true, true);
+  }
+
   private final Response[] replies;
+  private final ResponseType type;
+  private final boolean map;
+  private final boolean attribute;
   private int count;
 
   private MultiType(int length) {
+    this(length, ResponseType.MULTI, false, false);
+  }
+
+  private MultiType(int length, ResponseType type, boolean map, boolean attribute) {
     this.replies = new Response[length];
+    this.type = type;
+    this.map = map;
+    this.attribute = attribute;
     this.count = 0;
   }
 
   private MultiType(Response[] replies) {
     this.replies = replies;
+    this.type = ResponseType.MULTI;
+    this.map = false;
+    this.attribute = false;
     this.count = replies.length;
   }
 
   @Override
   public ResponseType type() {
-    return ResponseType.MULTI;
+    return type;
+  }
+
+  /**
+   * @return true when the multi is a RESP3 map.
+   */
+  public boolean isMap() {
+    return map;
+  }
+
+  /**
+   * @return true when the multi is a RESP3 attribute and not a reply.
+   */
+  public boolean isAttribute() {
+    return attribute;
   }
 
   public void add(Response reply) {
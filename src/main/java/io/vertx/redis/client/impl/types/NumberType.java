@@ -0,0 +1,86 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * <p>
+ * The Eclipse Public License is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * <p>
+ * The Apache License v2.0 is available at
+ * http://www.opensource.org/licenses/apache2.0.php
+ * <p>
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.client.impl.types;
+
+import io.vertx.redis.client.Response;
+import io.vertx.redis.client.ResponseType;
+
+import java.math.BigInteger;
+
+public final class NumberType implements Response {
+
+  /**
+   * Creates a RESP3 double from its wire representation.
+   */
+  public static NumberType createDouble(String text) {
+    final double value;
+    switch (text) {
+      case "inf":
+        value = Double.POSITIVE_INFINITY;
+        break;
+      case "-inf":
+        value = Double.NEGATIVE_INFINITY;
+        break;
+      case "nan":
+        value = Double.NaN;
+        break;
+      default:
+        value = Double.parseDouble(text);
+    }
+    return new NumberType(text, value);
+  }
+
+  /**
+   * Creates a RESP3 big number from its wire representation.
+   */
+  public static NumberType createBigNumber(String text) {
+    return new NumberType(text, new BigInteger(text));
+  }
+
+  // the wire text is kept so the string form is the same as the RESP2 bulk one
+  private final String text;
+  private final Number value;
+
+  private NumberType(String text, Number value) {
+    this.text = text;
+    this.value = value;
+  }
+
+  @Override
+  public ResponseType type() {
+    return ResponseType.NUMBER;
+  }
+
+  @Override
+  public Double toDouble() {
+    return value.doubleValue();
+  }
+
+  @Override
+  public Long toLong() {
+    return value.longValue();
+  }
+
+  @Override
+  public Integer toInteger() {
+    return value.intValue();
+  }
+
+  @Override
+  public String toString() {
+    return text;
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * <p>
+ * The Eclipse Public License is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * <p>
+ * The Apache License v2.0 is available at
+ * http://www.opensource.org/licenses/apache2.0.php
+ * <p>
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.client.impl;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.redis.client.Response;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the copying and the zero copy decoding of bulk replies, as seen by GET heavy workloads.
+ *
+ * Run with {@code -prof gc} to compare the allocation rate of both modes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class BulkParserBenchmark {
+
+  @Param({"16", "1024", "65536"})
+  public int size;
+
+  @Param({"false", "true"})
+  public boolean zeroCopy;
+
+  private byte[] reply;
+  private RESPParser parser;
+  private Response last;
+
+  @Setup
+  public void setup() {
+    final byte[] value = new byte[size];
+    Arrays.fill(value, (byte) 'x');
+
+    reply = Buffer.buffer()
+      .appendString("$" + size + "\r\n")
+      .appendBytes(value)
+      .appendString("\r\n")
+      .getBytes();
+
+    parser = new RESPParser(new ParserHandler() {
+      @Override
+      public void handle(Response response) {
+        last = response;
+      }
+
+      @Override
+      public void fatal(Throwable t) {
+        throw new RuntimeException(t);
+      }
+
+      @Override
+      public void fail(Throwable t) {
+        throw new RuntimeException(t);
+      }
+    }, 16, zeroCopy, false);
+  }
+
+  @Benchmark
+  public Response get() {
+    // the socket hands a fresh heap buffer for every read
+    parser.handle(Buffer.buffer(reply));
+    return last;
+  }
+
+  @Benchmark
+  public String getAsString() {
+    parser.handle(Buffer.buffer(reply));
+    return last.toString(StandardCharsets.ISO_8859_1);
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * <p>
+ * The Eclipse Public License is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * <p>
+ * The Apache License v2.0 is available at
+ * http://www.opensource.org/licenses/apache2.0.php
+ * <p>
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.client.impl;
+
+import io.vertx.core.buffer.Buffer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Realistic reply corpora shared by the codec benchmarks.
+ *
+ * <ul>
+ *   <li>{@code status}: a pipeline of 100 tiny replies ({@code +OK}, {@code +QUEUED}, integers and short bulks)</li>
+ *   <li>{@code bulk1k}: a 1 KB bulk</li>
+ *   <li>{@code bulk1m}: a 1 MB bulk</li>
+ *   <li>{@code nested}: a multi of 32 elements, each one 12 multis deep</li>
+ * </ul>
+ *
+ * Each corpus can be received {@code whole} or split at {@code random} chunk boundaries (from 1 byte to a full
+ * ethernet frame), the split is seeded so all runs see the same chunks.
+ */
+final class Corpus {
+
+  static final String STATUS = "status";
+  static final String BULK_1K = "bulk1k";
+  static final String BULK_1M = "bulk1m";
+  static final String NESTED = "nested";
+
+  static final String WHOLE = "whole";
+  static final String RANDOM = "random";
+
+  // the largest chunk a single TCP segment usually carries
+  private static final int MAX_CHUNK = 1460;
+
+  private Corpus() {
+  }
+
+  static byte[] reply(String name) {
+    final Buffer reply = Buffer.buffer();
+    switch (name) {
+      case STATUS:
+        for (int i = 0; i < 25; i++) {
+          reply
+            .appendString("+OK\r\n")
+            .appendString("+QUEUED\r\n")
+            .appendString(":" + i + "\r\n")
+            .appendString("$5\r\nvalue\r\n");
+        }
+        break;
+      case BULK_1K:
+        bulk(reply, 1024);
+        break;
+      case BULK_1M:
+        bulk(reply, 1024 * 1024);
+        break;
+      case NESTED:
+        reply.appendString("*32\r\n");
+        for (int i = 0; i < 32; i++) {
+          nested(reply, 12);
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown corpus: " + name);
+    }
+    return reply.getBytes();
+  }
+
+  static Buffer[] chunks(byte[] reply, String chunking) {
+    switch (chunking) {
+      case WHOLE:
+        return new Buffer[] { Buffer.buffer(reply) };
+      case RANDOM:
+        final Random random = new Random(reply.length);
+        final List<Buffer> chunks = new ArrayList<>();
+        int offset = 0;
+        while (offset < reply.length) {
+          final int end = Math.min(reply.length, offset + 1 + random.nextInt(MAX_CHUNK));
+          chunks.add(Buffer.buffer(Arrays.copyOfRange(reply, offset, end)));
+          offset = end;
+        }
+        return chunks.toArray(new Buffer[0]);
+      default:
+        throw new IllegalArgumentException("Unknown chunking: " + chunking);
+    }
+  }
+
+  private static void bulk(Buffer reply, int size) {
+    final byte[] value = new byte[size];
+    Arrays.fill(value, (byte) 'x');
+    reply
+      .appendString("$" + size + "\r\n")
+      .appendBytes(value)
+      .appendString("\r\n");
+  }
+
+  private static void nested(Buffer reply, int depth) {
+    if (depth == 0) {
+      reply.appendString("$4\r\nleaf\r\n");
+      return;
+    }
+    reply.appendString("*3\r\n:" + depth + "\r\n$5\r\nlevel\r\n");
+    nested(reply, depth - 1);
+  }
+}
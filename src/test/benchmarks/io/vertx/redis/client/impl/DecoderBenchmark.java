@@ -0,0 +1,107 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * <p>
+ * The Eclipse Public License is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * <p>
+ * The Apache License v2.0 is available at
+ * http://www.opensource.org/licenses/apache2.0.php
+ * <p>
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.client.impl;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.redis.client.Response;
+import io.vertx.redis.client.ResponseDecoder;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A HGETALL like reply converted to a map of strings, comparing the conversion of the response with the map decoder.
+ * Run with {@code -prof gc} to compare the allocation rate per reply.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class DecoderBenchmark {
+
+  @Param({"50"})
+  public int fields;
+
+  private byte[] reply;
+  private RESPParser parser;
+  private Response last;
+  private ResponseDecoder<Map<String, String>> decoder;
+  private Map<String, String> decoded;
+
+  @Setup
+  public void setup() {
+    final Buffer buffer = Buffer.buffer().appendString("*" + (fields * 2) + "\r\n");
+    for (int i = 0; i < fields; i++) {
+      final String field = "field:" + i;
+      final String value = "value:" + i + ":0123456789abcdef";
+      buffer
+        .appendString("$" + field.length() + "\r\n" + field + "\r\n")
+        .appendString("$" + value.length() + "\r\n" + value + "\r\n");
+    }
+    reply = buffer.getBytes();
+
+    parser = new RESPParser(new ParserHandler() {
+      @Override
+      public void handle(Response response) {
+        last = response;
+      }
+
+      @Override
+      public void fatal(Throwable t) {
+        throw new RuntimeException(t);
+      }
+
+      @Override
+      public void fail(Throwable t) {
+        throw new RuntimeException(t);
+      }
+
+      @Override
+      public ResponseDecoder<?> decoder() {
+        return decoder;
+      }
+
+      @Override
+      public void decoded(Throwable failure) {
+        decoded = decoder.result();
+        decoder = null;
+      }
+    }, 16);
+  }
+
+  @Benchmark
+  public Map<String, String> response() {
+    // a fresh buffer per reply, as the socket does
+    parser.handle(Buffer.buffer(reply));
+    final Map<String, String> map = new HashMap<>();
+    for (int i = 0; i < last.size(); i += 2) {
+      map.put(last.get(i).toString(StandardCharsets.UTF_8), last.get(i + 1).toString(StandardCharsets.UTF_8));
+    }
+    return map;
+  }
+
+  @Benchmark
+  public Map<String, String> decoder() {
+    decoder = ResponseDecoder.map();
+    parser.handle(Buffer.buffer(reply));
+    return decoded;
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * <p>
+ * The Eclipse Public License is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * <p>
+ * The Apache License v2.0 is available at
+ * http://www.opensource.org/licenses/apache2.0.php
+ * <p>
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.client.impl;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.redis.client.Response;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A HGETALL like reply where the application only reads a couple of fields, comparing the eager decoding with the
+ * lazy index. Run with {@code -prof gc} to compare the allocation rate per reply.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class LazyMultiBenchmark {
+
+  @Param({"500"})
+  public int fields;
+
+  @Param({"false", "true"})
+  public boolean lazy;
+
+  private byte[] reply;
+  private RESPParser parser;
+  private Response last;
+
+  @Setup
+  public void setup() {
+    final Buffer buffer = Buffer.buffer().appendString("*" + (fields * 2) + "\r\n");
+    for (int i = 0; i < fields; i++) {
+      final String field = "field:" + i;
+      final String value = "value:" + i + ":0123456789abcdef";
+      buffer
+        .appendString("$" + field.length() + "\r\n" + field + "\r\n")
+        .appendString("$" + value.length() + "\r\n" + value + "\r\n");
+    }
+    reply = buffer.getBytes();
+
+    parser = new RESPParser(new ParserHandler() {
+      @Override
+      public void handle(Response response) {
+        last = response;
+      }
+
+      @Override
+      public void fatal(Throwable t) {
+        throw new RuntimeException(t);
+      }
+
+      @Override
+      public void fail(Throwable t) {
+        throw new RuntimeException(t);
+      }
+    }, 16, false, lazy);
+  }
+
+  @Benchmark
+  public String twoFields() {
+    // a fresh buffer per reply, as the socket does
+    parser.handle(Buffer.buffer(reply));
+    return last.get("field:7").toString() + last.get("field:300").toString();
+  }
+}
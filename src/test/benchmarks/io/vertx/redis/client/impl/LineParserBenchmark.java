@@ -0,0 +1,90 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * <p>
+ * The Eclipse Public License is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * <p>
+ * The Apache License v2.0 is available at
+ * http://www.opensource.org/licenses/apache2.0.php
+ * <p>
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.client.impl;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.redis.client.Response;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Long simple string and error lines received in many small chunks, this stresses the line end scanning.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class LineParserBenchmark {
+
+  @Param({"+", "-"})
+  public String type;
+
+  @Param({"128", "16384"})
+  public int length;
+
+  @Param({"16", "1024"})
+  public int chunkSize;
+
+  private Buffer[] chunks;
+  private RESPParser parser;
+  private Response last;
+
+  @Setup
+  public void setup() {
+    final StringBuilder line = new StringBuilder(type);
+    if ("-".equals(type)) {
+      line.append("ERR ");
+    }
+    while (line.length() < length) {
+      line.append('x');
+    }
+    line.append("\r\n");
+
+    final Buffer reply = Buffer.buffer(line.toString());
+    chunks = new Buffer[(reply.length() + chunkSize - 1) / chunkSize];
+    for (int i = 0; i < chunks.length; i++) {
+      chunks[i] = reply.getBuffer(i * chunkSize, Math.min((i + 1) * chunkSize, reply.length()));
+    }
+
+    parser = new RESPParser(new ParserHandler() {
+      @Override
+      public void handle(Response response) {
+        last = response;
+      }
+
+      @Override
+      public void fatal(Throwable t) {
+        throw new RuntimeException(t);
+      }
+
+      @Override
+      public void fail(Throwable t) {
+        throw new RuntimeException(t);
+      }
+    }, 16);
+  }
+
+  @Benchmark
+  public Response line() {
+    for (Buffer chunk : chunks) {
+      parser.handle(chunk);
+    }
+    return last;
+  }
+}
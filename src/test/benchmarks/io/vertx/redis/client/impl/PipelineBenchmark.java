@@ -0,0 +1,150 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * <p>
+ * The Eclipse Public License is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * <p>
+ * The Apache License v2.0 is available at
+ * http://www.opensource.org/licenses/apache2.0.php
+ * <p>
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.client.impl;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.net.NetServer;
+import io.vertx.redis.client.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pipelined PINGs over a real connection to an in process server that answers every request with PONG, this measures
+ * the client overhead per request (encoding, queueing, parsing and dispatching) without a redis server. With write
+ * coalescing the requests of a pipeline sent from the connection context are flushed together.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class PipelineBenchmark {
+
+  private static final Buffer PING = Buffer.buffer("*1\r\n$4\r\nPING\r\n");
+  private static final Buffer PONG = Buffer.buffer("+PONG\r\n");
+
+  @Param({"1", "100"})
+  public int pipeline;
+
+  @Param({"false", "true"})
+  public boolean writeCoalescing;
+
+  private Vertx vertx;
+  private NetServer server;
+  private RedisConnection connection;
+  // the context of the connection, where replies are parsed
+  private Context context;
+  private Request ping;
+  private List<Request> batch;
+
+  @Setup
+  public void setup() throws Exception {
+    vertx = Vertx.vertx();
+
+    final CompletableFuture<Void> listen = new CompletableFuture<>();
+    server = vertx.createNetServer()
+      .connectHandler(socket -> {
+        final int[] pending = new int[1];
+        socket.handler(chunk -> {
+          // every request is the same PING, answer as many as fully received
+          pending[0] += chunk.length();
+          final Buffer replies = Buffer.buffer();
+          while (pending[0] >= PING.length()) {
+            pending[0] -= PING.length();
+            replies.appendBuffer(PONG);
+          }
+          socket.write(replies);
+        });
+      })
+      .listen(0, "localhost", ar -> {
+        if (ar.succeeded()) {
+          listen.complete(null);
+        } else {
+          listen.completeExceptionally(ar.cause());
+        }
+      });
+    listen.get();
+
+    final CompletableFuture<RedisConnection> connect = new CompletableFuture<>();
+    Redis.createClient(vertx, new RedisOptions()
+      .setEndpoint("redis://localhost:" + server.actualPort())
+      .setMaxWaitingHandlers(pipeline * 2)
+      .setWriteCoalescing(writeCoalescing))
+      .connect(ar -> {
+        if (ar.succeeded()) {
+          context = Vertx.currentContext();
+          connect.complete(ar.result());
+        } else {
+          connect.completeExceptionally(ar.cause());
+        }
+      });
+    connection = connect.get();
+    ping = Request.cmd(Command.PING);
+    batch = Collections.nCopies(pipeline, ping);
+  }
+
+  @TearDown
+  public void tearDown() {
+    vertx.close();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(100)
+  public void ping() throws InterruptedException {
+    // the same number of requests per invocation, sent in pipelines of the given size
+    for (int i = 0; i < 100; i += pipeline) {
+      final CountDownLatch latch = new CountDownLatch(pipeline);
+      for (int j = 0; j < pipeline; j++) {
+        connection.send(ping, ar -> latch.countDown());
+      }
+      latch.await();
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(100)
+  public void pingOnContext() throws InterruptedException {
+    // the same as above but sending from the connection context, like a verticle would
+    for (int i = 0; i < 100; i += pipeline) {
+      final CountDownLatch latch = new CountDownLatch(pipeline);
+      context.runOnContext(v -> {
+        for (int j = 0; j < pipeline; j++) {
+          connection.send(ping, ar -> latch.countDown());
+        }
+      });
+      latch.await();
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(100)
+  public void batch() throws InterruptedException {
+    // the same as above with each pipeline sent as a batch
+    for (int i = 0; i < 100; i += pipeline) {
+      final CountDownLatch latch = new CountDownLatch(1);
+      context.runOnContext(v -> connection.batch(batch, ar -> latch.countDown()));
+      latch.await();
+    }
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * <p>
+ * The Eclipse Public License is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * <p>
+ * The Apache License v2.0 is available at
+ * http://www.opensource.org/licenses/apache2.0.php
+ * <p>
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.client.impl;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.redis.client.Response;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses each corpus, whole and split at random chunk boundaries, an operation is the whole corpus.
+ *
+ * @see Corpus
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class RESPParserBenchmark {
+
+  @Param({Corpus.STATUS, Corpus.BULK_1K, Corpus.BULK_1M, Corpus.NESTED})
+  public String corpus;
+
+  @Param({Corpus.WHOLE, Corpus.RANDOM})
+  public String chunking;
+
+  private Buffer[] chunks;
+  private RESPParser parser;
+  private Response last;
+
+  @Setup
+  public void setup() {
+    chunks = Corpus.chunks(Corpus.reply(corpus), chunking);
+
+    parser = new RESPParser(new ParserHandler() {
+      @Override
+      public void handle(Response response) {
+        last = response;
+      }
+
+      @Override
+      public void fatal(Throwable t) {
+        throw new RuntimeException(t);
+      }
+
+      @Override
+      public void fail(Throwable t) {
+        throw new RuntimeException(t);
+      }
+    }, 16);
+  }
+
+  @Benchmark
+  public Response parse() {
+    for (Buffer chunk : chunks) {
+      parser.handle(chunk);
+    }
+    return last;
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * <p>
+ * The Eclipse Public License is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * <p>
+ * The Apache License v2.0 is available at
+ * http://www.opensource.org/licenses/apache2.0.php
+ * <p>
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.client.impl;
+
+import io.vertx.core.buffer.Buffer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The receive buffer alone: appending the chunks of a corpus and consuming it as the parser does, the lines are scanned
+ * and the bulk payloads are read as copies or as views.
+ *
+ * @see Corpus
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ReadableBufferBenchmark {
+
+  @Param({Corpus.STATUS, Corpus.BULK_1K, Corpus.BULK_1M})
+  public String corpus;
+
+  @Param({Corpus.WHOLE, Corpus.RANDOM})
+  public String chunking;
+
+  @Param({"false", "true"})
+  public boolean slice;
+
+  private Buffer[] chunks;
+  private ReadableBuffer buffer;
+
+  @Setup
+  public void setup() {
+    chunks = Corpus.chunks(Corpus.reply(corpus), chunking);
+    buffer = new ReadableBuffer(Integer.MAX_VALUE);
+  }
+
+  @Benchmark
+  public void consume(Blackhole blackhole) {
+    int bytesNeeded = -1;
+
+    for (Buffer chunk : chunks) {
+      buffer.append(chunk);
+
+      while (buffer.readableBytes() > 0) {
+        if (bytesNeeded != -1) {
+          // a bulk payload and its trailing \r\n
+          if (buffer.readableBytes() < bytesNeeded + 2) {
+            break;
+          }
+          blackhole.consume(slice ? buffer.readSlice(bytesNeeded) : buffer.readBytes(bytesNeeded));
+          buffer.skip(2);
+          bytesNeeded = -1;
+          continue;
+        }
+
+        final int start = buffer.offset();
+        final int eol = buffer.findLineEnd();
+        if (eol == -1) {
+          break;
+        }
+        if (buffer.getByte(start) == '$') {
+          buffer.skip(1);
+          bytesNeeded = Integer.parseInt(buffer.readLine(eol, StandardCharsets.ISO_8859_1));
+        } else {
+          blackhole.consume(buffer.readLine(eol, StandardCharsets.ISO_8859_1));
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * <p>
+ * The Eclipse Public License is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * <p>
+ * The Apache License v2.0 is available at
+ * http://www.opensource.org/licenses/apache2.0.php
+ * <p>
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.client.impl;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.redis.client.Command;
+import io.vertx.redis.client.PreparedRequest;
+import io.vertx.redis.client.Request;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding of typical requests, a tiny {@code GET}, a {@code SET} of a 1 KB value and a {@code MSET} of 100 keys, plus
+ * the number to bytes conversion used for all the RESP headers. {@code setLarge} encodes a {@code SET} of a 1 MB buffer
+ * the way the codec does, with the payload kept by reference. {@code hset} encodes string arguments the way the
+ * {@code RedisAPI} facade sends them, to a pooled buffer like the codec. {@code hincrby} and {@code hincrbyPrepared}
+ * compare a request built from scratch with one created from a prepared template.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class RequestEncoderBenchmark {
+
+  private byte[] value;
+  private Buffer largeValue;
+  private String[] fields;
+  private PreparedRequest prepared;
+  private long cached;
+  private long large;
+
+  @Setup
+  public void setup() {
+    value = new byte[1024];
+    Arrays.fill(value, (byte) 'x');
+    largeValue = Buffer.buffer(new byte[1024 * 1024]);
+    prepared = Request.prepare(Command.HINCRBY, PreparedRequest.PLACEHOLDER, "visits", 1);
+    fields = new String[21];
+    fields[0] = "user:1000";
+    for (int i = 1; i < fields.length; i += 2) {
+      fields[i] = "field:" + i;
+      fields[i + 1] = "value of field " + i;
+    }
+    // headers of short values hit the lookup table, larger ones are converted
+    cached = 42;
+    large = 1048576;
+  }
+
+  @Benchmark
+  public Buffer get() {
+    return ((RequestImpl) Request.cmd(Command.GET).arg("user:1000")).encode();
+  }
+
+  @Benchmark
+  public Buffer set() {
+    return ((RequestImpl) Request.cmd(Command.SET).arg("user:1000").arg(value)).encode();
+  }
+
+  @Benchmark
+  public int setLarge() {
+    final RequestImpl request = (RequestImpl) Request.cmd(Command.SET).arg("user:1000").arg(largeValue);
+    final CompositeByteBuf buffer = PooledByteBufAllocator.DEFAULT.compositeBuffer(Integer.MAX_VALUE);
+    request.encode(buffer, PooledByteBufAllocator.DEFAULT);
+    final int length = buffer.readableBytes();
+    buffer.release();
+    return length;
+  }
+
+  @Benchmark
+  public int hset() {
+    final RequestImpl request = new RequestImpl(Command.HSET, fields.length);
+    for (String field : fields) {
+      request.arg(field);
+    }
+    final ByteBuf buffer = PooledByteBufAllocator.DEFAULT.ioBuffer(request.encodedLength());
+    request.encode(buffer);
+    final int length = buffer.readableBytes();
+    buffer.release();
+    return length;
+  }
+
+  @Benchmark
+  public int hincrby() {
+    return encode((RequestImpl) Request.cmd(Command.HINCRBY).arg("stats:1000").arg("visits").arg(1));
+  }
+
+  @Benchmark
+  public int hincrbyPrepared() {
+    return encode((RequestImpl) prepared.request().arg("stats:1000"));
+  }
+
+  private static int encode(RequestImpl request) {
+    final ByteBuf buffer = PooledByteBufAllocator.DEFAULT.ioBuffer(request.encodedLength());
+    request.encode(buffer);
+    final int length = buffer.readableBytes();
+    buffer.release();
+    return length;
+  }
+
+  @Benchmark
+  public Buffer mset() {
+    final Request request = Request.cmd(Command.MSET);
+    for (int i = 0; i < 100; i++) {
+      request.arg("key:" + i).arg(i);
+    }
+    return ((RequestImpl) request).encode();
+  }
+
+  @Benchmark
+  public byte[] numToBytesCached() {
+    return RESPEncoder.numToBytes(cached);
+  }
+
+  @Benchmark
+  public byte[] numToBytes() {
+    return RESPEncoder.numToBytes(large);
+  }
+}
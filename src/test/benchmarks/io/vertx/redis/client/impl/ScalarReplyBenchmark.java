@@ -0,0 +1,84 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ * <p>
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * <p>
+ * The Eclipse Public License is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * <p>
+ * The Apache License v2.0 is available at
+ * http://www.opensource.org/licenses/apache2.0.php
+ * <p>
+ * You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.redis.client.impl;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.redis.client.Response;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A pipeline of small scalar replies as produced by INCR/EXISTS/EXPIRE, MULTI/EXEC and PING heavy workloads. Run with
+ * {@code -prof gc} to see the allocation per batch of replies.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ScalarReplyBenchmark {
+
+  private static final String[] REPLIES = {
+    // EXISTS / EXPIRE
+    ":1\r\n", ":0\r\n", ":1\r\n",
+    // INCR
+    ":17\r\n", ":128\r\n",
+    // MULTI / EXEC and PING
+    "+QUEUED\r\n", "+PONG\r\n", "+OK\r\n",
+    // EVALSHA before SCRIPT LOAD
+    "-NOSCRIPT No matching script. Please use EVAL.\r\n"
+  };
+
+  @Param({"100"})
+  public int pipeline;
+
+  private Buffer replies;
+  private RESPParser parser;
+  private Response last;
+
+  @Setup
+  public void setup() {
+    replies = Buffer.buffer();
+    for (int i = 0; i < pipeline; i++) {
+      replies.appendString(REPLIES[i % REPLIES.length]);
+    }
+
+    parser = new RESPParser(new ParserHandler() {
+      @Override
+      public void handle(Response response) {
+        last = response;
+      }
+
+      @Override
+      public void fatal(Throwable t) {
+        throw new RuntimeException(t);
+      }
+
+      @Override
+      public void fail(Throwable t) {
+        throw new RuntimeException(t);
+      }
+    }, 16);
+  }
+
+  @Benchmark
+  public Response scalars() {
+    parser.handle(replies);
+    return last;
+  }
+}
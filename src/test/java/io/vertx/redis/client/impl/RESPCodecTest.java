@@ -0,0 +1,127 @@
+package io.vertx.redis.client.impl;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.redis.client.Command;
+import io.vertx.redis.client.Request;
+import io.vertx.redis.client.Response;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class RESPCodecTest {
+
+  @Test
+  public void testWriteCoalescing() {
+    EmbeddedChannel channel = new EmbeddedChannel(
+      new RESPCodec(null, ByteBufAllocator.DEFAULT, parser(), true, (t, sequence) -> fail(t.getMessage())));
+
+    channel.writeAndFlush(Request.cmd(Command.GET).arg("a"), channel.voidPromise());
+    channel.writeAndFlush(Arrays.asList(Request.cmd(Command.GET).arg("b"), Request.cmd(Command.GET).arg("c")), channel.voidPromise());
+    // nothing is flushed before the end of the event loop iteration
+    assertNull(channel.readOutbound());
+
+    channel.runPendingTasks();
+    ByteBuf written = channel.readOutbound();
+    assertEquals(
+      "*2\r\n$3\r\nget\r\n$1\r\na\r\n*2\r\n$3\r\nget\r\n$1\r\nb\r\n*2\r\n$3\r\nget\r\n$1\r\nc\r\n",
+      written.toString(StandardCharsets.ISO_8859_1));
+    written.release();
+    assertNull(channel.readOutbound());
+
+    // a large pending buffer is flushed right away
+    byte[] value = new byte[RESPCodec.COALESCE_BYTES];
+    channel.writeAndFlush(Request.cmd(Command.SET).arg("a").arg(value), channel.voidPromise());
+    written = channel.readOutbound();
+    assertTrue(written.readableBytes() > RESPCodec.COALESCE_BYTES);
+    written.release();
+
+    assertFalse(channel.finish());
+  }
+
+  @Test
+  public void testWriteCoalescingEncodeFailure() {
+    List<Long> failed = new ArrayList<>();
+    EmbeddedChannel channel = new EmbeddedChannel(
+      new RESPCodec(null, ByteBufAllocator.DEFAULT, parser(), true, (t, sequence) -> failed.add(sequence)));
+
+    Command broken = broken();
+
+    channel.writeAndFlush(Request.cmd(Command.GET).arg("a"), channel.voidPromise());
+    channel.writeAndFlush(Arrays.asList(Request.cmd(broken).arg("b"), Request.cmd(Command.GET).arg("c")), channel.voidPromise());
+    channel.writeAndFlush(Request.cmd(broken), channel.voidPromise());
+
+    // only the requests that could not be encoded are left out, with their sequence numbers
+    assertEquals(Arrays.asList(1L, 3L), failed);
+
+    channel.runPendingTasks();
+    ByteBuf written = channel.readOutbound();
+    assertEquals(
+      "*2\r\n$3\r\nget\r\n$1\r\na\r\n*2\r\n$3\r\nget\r\n$1\r\nc\r\n",
+      written.toString(StandardCharsets.ISO_8859_1));
+    written.release();
+    assertNull(channel.readOutbound());
+
+    assertFalse(channel.finish());
+  }
+
+  @Test
+  public void testEncodeFailure() {
+    List<Long> failed = new ArrayList<>();
+    EmbeddedChannel channel = new EmbeddedChannel(
+      new RESPCodec(null, ByteBufAllocator.DEFAULT, parser(), false, (t, sequence) -> failed.add(sequence)));
+
+    Command broken = broken();
+    Request referenced = Request.cmd(Command.SET).arg("k").arg(Buffer.buffer(new byte[RequestImpl.REFERENCE_THRESHOLD]));
+
+    channel.writeAndFlush(Request.cmd(broken), channel.voidPromise());
+    channel.writeAndFlush(Arrays.asList(Request.cmd(Command.GET).arg("a"), Request.cmd(broken).arg("b")), channel.voidPromise());
+    channel.writeAndFlush(Arrays.asList(Request.cmd(broken), referenced), channel.voidPromise());
+
+    // only the requests that could not be encoded fail, the connection does not
+    channel.checkException();
+    assertEquals(Arrays.asList(0L, 2L, 3L), failed);
+
+    ByteBuf written = channel.readOutbound();
+    assertEquals("*2\r\n$3\r\nget\r\n$1\r\na\r\n", written.toString(StandardCharsets.ISO_8859_1));
+    written.release();
+    written = channel.readOutbound();
+    assertEquals(((RequestImpl) referenced).encodedLength(), written.readableBytes());
+    written.release();
+    assertNull(channel.readOutbound());
+
+    assertFalse(channel.finish());
+  }
+
+  private static RESPParser parser() {
+    return new RESPParser(new ParserHandler() {
+      @Override
+      public void handle(Response response) {
+      }
+
+      @Override
+      public void fatal(Throwable t) {
+      }
+
+      @Override
+      public void fail(Throwable t) {
+      }
+    }, 32);
+  }
+
+  private static Command broken() {
+    return new CommandImpl("broken", -1, 0, 0, 0, false, false) {
+      @Override
+      public byte[] getBytes() {
+        throw new IllegalStateException("broken");
+      }
+    };
+  }
+}
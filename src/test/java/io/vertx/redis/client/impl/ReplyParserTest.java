@@ -1,17 +1,35 @@
 package io.vertx.redis.client.impl;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.util.ResourceLeakDetector;
+import io.vertx.core.Handler;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.core.json.JsonObject;
 import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 import io.vertx.ext.unit.junit.RunTestOnContext;
 import io.vertx.ext.unit.junit.VertxUnitRunner;
 import io.vertx.redis.client.Response;
+import io.vertx.redis.client.ResponseDecoder;
+import io.vertx.redis.client.ResponseType;
 import io.vertx.redis.client.impl.types.BulkType;
+import io.vertx.redis.client.impl.types.ErrorType;
+import io.vertx.redis.client.impl.types.LazyMultiType;
 import io.vertx.redis.client.impl.types.MultiType;
+import io.vertx.redis.client.impl.types.SimpleStringType;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
 @RunWith(VertxUnitRunner.class)
@@ -79,6 +97,42 @@ public class ReplyParserTest {
     parser.handle(Buffer.buffer("\n"));
   }
 
+  @Test(timeout = 30_000)
+  public void testLineEndAcrossChunks(TestContext should) {
+    final ReadableBuffer buffer = new ReadableBuffer(1024);
+
+    // the scan resumes with every chunk until the line is complete
+    buffer.append(Buffer.buffer("+HEL"));
+    should.assertEquals(-1, buffer.findLineEnd());
+    buffer.append(Buffer.buffer("LO"));
+    should.assertEquals(-1, buffer.findLineEnd());
+    // split between CR and LF
+    buffer.append(Buffer.buffer("\r"));
+    should.assertEquals(-1, buffer.findLineEnd());
+    buffer.append(Buffer.buffer("\n+WOR"));
+    int end = buffer.findLineEnd();
+    should.assertEquals(buffer.offset() + 7, end);
+    should.assertEquals("+HELLO", buffer.readLine(end, StandardCharsets.US_ASCII));
+
+    // the next line is scanned from its own start, not from where the previous scan stopped
+    should.assertEquals(-1, buffer.findLineEnd());
+    buffer.append(Buffer.buffer("LD\r\n"));
+    end = buffer.findLineEnd();
+    should.assertEquals(buffer.offset() + 7, end);
+    should.assertEquals("+WORLD", buffer.readLine(end, StandardCharsets.US_ASCII));
+    buffer.release();
+
+    // the parser gets the same lines fed one byte at a time
+    final List<Response> replies = new ArrayList<>();
+    final RESPParser parser = new RESPParser(collect(should, replies), 16);
+    for (byte b : "+HELLO\r\n-ERR WORLD\r\n".getBytes(StandardCharsets.US_ASCII)) {
+      parser.handle(Buffer.buffer(new byte[] { b }));
+    }
+    should.assertEquals(2, replies.size());
+    should.assertEquals("HELLO", replies.get(0).toString());
+    should.assertEquals(ResponseType.ERROR, replies.get(1).type());
+  }
+
   @Test(timeout = 30_000)
   public void testIntegerType(TestContext should) {
     final Async test = should.async();
@@ -129,6 +183,37 @@ public class ReplyParserTest {
     parser.handle(Buffer.buffer(":-1\r\n"));
   }
 
+  @Test(timeout = 30_000)
+  public void testIntegerLimits(TestContext should) {
+    final List<Response> replies = new ArrayList<>();
+    final RESPParser parser = new RESPParser(collect(should, replies), 16);
+    parser.handle(Buffer.buffer(":-9223372036854775808\r\n:9223372036854775807\r\n"));
+    should.assertEquals(Long.MIN_VALUE, replies.get(0).toLong());
+    should.assertEquals(Long.MAX_VALUE, replies.get(1).toLong());
+
+    // one past the limits and a sign after the digits
+    for (String invalid : new String[] { ":-9223372036854775809\r\n", ":9223372036854775808\r\n", ":0-5\r\n" }) {
+      final AtomicInteger fatal = new AtomicInteger();
+      new RESPParser(new ParserHandler() {
+        @Override
+        public void handle(Response response) {
+          should.fail("Unexpected reply " + response);
+        }
+
+        @Override
+        public void fatal(Throwable t) {
+          fatal.incrementAndGet();
+        }
+
+        @Override
+        public void fail(Throwable t) {
+          should.fail(t);
+        }
+      }, 16).handle(Buffer.buffer(invalid));
+      should.assertEquals(1, fatal.get());
+    }
+  }
+
   @Test(timeout = 30_000)
   public void testBulk(TestContext should) {
     final Async test = should.async();
@@ -154,6 +239,174 @@ public class ReplyParserTest {
     parser.handle(Buffer.buffer("$6\r\nfoobar\r\n"));
   }
 
+  @Test(timeout = 30_000)
+  public void testZeroCopyBulk(TestContext should) {
+    final Async test = should.async();
+    final List<Response> replies = new ArrayList<>();
+
+    final RESPParser parser = new RESPParser(new ParserHandler() {
+      @Override
+      public void handle(Response response) {
+        replies.add(response);
+        // views must stay valid while the parser keeps consuming the receive buffer
+        for (Response reply : replies) {
+          should.assertEquals("foobar", reply.toString());
+          should.assertTrue(reply.toBuffer().getByteBuf().isReadOnly());
+        }
+        if (replies.size() == 3) {
+          test.complete();
+        }
+      }
+
+      @Override
+      public void fatal(Throwable t) {
+        should.fail(t);
+      }
+
+      @Override
+      public void fail(Throwable t) {
+        should.fail(t);
+      }
+    }, 16, true, false);
+
+    parser.handle(Buffer.buffer("$6\r\nfoobar\r\n$6\r\nfoo"));
+    parser.handle(Buffer.buffer("bar\r\n$6"));
+    parser.handle(Buffer.buffer("\r\nfoobar\r\n"));
+  }
+
+  @Test(timeout = 30_000)
+  public void testViewsOutliveChannelChunks(TestContext should) {
+    final List<Response> bulks = new ArrayList<>();
+    final List<Response> frames = new ArrayList<>();
+    final RESPParser zeroCopy = new RESPParser(collect(should, bulks), 16, true, false);
+    final RESPParser lazy = new RESPParser(collect(should, frames), 16, false, true);
+
+    final List<ByteBuf> chunks = new ArrayList<>();
+    for (String chunk : new String[] { "$6\r\nfoobar\r\n*2\r\n$3\r\nfoo\r\n$3\r\nbar\r\n$6\r\nba", "zqux\r\n:1", "\r\n" }) {
+      final ByteBuf bytes = PooledByteBufAllocator.DEFAULT.directBuffer();
+      bytes.writeCharSequence(chunk, StandardCharsets.US_ASCII);
+      chunks.add(bytes);
+      zeroCopy.handle(bytes.retainedDuplicate());
+      lazy.handle(bytes.retainedDuplicate());
+    }
+
+    // the parsers own the chunks read from the channel and recycle them once parsed
+    for (ByteBuf chunk : chunks) {
+      should.assertEquals(1, chunk.refCnt());
+      chunk.release();
+    }
+
+    // the values decoded from the first chunk are still readable after all the chunks were parsed and released
+    should.assertEquals(4, bulks.size());
+    should.assertEquals("foobar", bulks.get(0).toString());
+    should.assertEquals("foo", bulks.get(1).get(0).toString());
+    should.assertEquals("bar", bulks.get(1).get(1).toString());
+    should.assertEquals("bazqux", bulks.get(2).toString());
+    should.assertEquals(4, frames.size());
+    should.assertEquals("foobar", frames.get(0).toString());
+    should.assertEquals("foo", frames.get(1).get(0).toString());
+    should.assertEquals("bar", frames.get(1).get(1).toString());
+  }
+
+  @Test(timeout = 30_000)
+  public void testChunksReleased(TestContext should) {
+    final ResourceLeakDetector.Level level = ResourceLeakDetector.getLevel();
+    // every buffer is tracked, a buffer collected before it was released is reported
+    ResourceLeakDetector.setLevel(ResourceLeakDetector.Level.PARANOID);
+    try {
+      final StringBuilder value = new StringBuilder();
+      for (int i = 0; i < 20_000; i++) {
+        value.append((char) ('a' + i % 26));
+      }
+      final String replies = "$20000\r\n" + value + "\r\n:1\r\n$3\r\nfoo\r\n+PARTIAL";
+
+      // copies, zero copy views and lazy frames
+      for (boolean[] mode : new boolean[][] { { false, false }, { true, false }, { false, true } }) {
+        final List<Response> parsed = new ArrayList<>();
+        final RESPParser parser = new RESPParser(collect(should, parsed), 16, mode[0], mode[1]);
+
+        final List<ByteBuf> chunks = new ArrayList<>();
+        for (int i = 0; i < replies.length(); i += 6_000) {
+          final ByteBuf chunk = PooledByteBufAllocator.DEFAULT.directBuffer();
+          chunk.writeCharSequence(replies.substring(i, Math.min(i + 6_000, replies.length())), StandardCharsets.US_ASCII);
+          chunks.add(chunk);
+          parser.handle(chunk.retain());
+        }
+
+        should.assertEquals(3, parsed.size());
+        // only the last chunk is still needed for the partial reply, pooled chunks are copied right away when the
+        // values are views
+        for (int i = 0; i < chunks.size() - 1; i++) {
+          should.assertEquals(1, chunks.get(i).refCnt());
+        }
+        should.assertEquals(mode[0] || mode[1] ? 1 : 2, chunks.get(chunks.size() - 1).refCnt());
+
+        parser.release();
+        should.assertEquals(0, parser.retainedBytes());
+        for (ByteBuf chunk : chunks) {
+          should.assertEquals(1, chunk.refCnt());
+          should.assertTrue(chunk.release());
+        }
+
+        // the values do not depend on the released chunks
+        should.assertEquals(value.toString(), parsed.get(0).toString());
+        should.assertEquals(1, parsed.get(1).toInteger());
+        should.assertEquals("foo", parsed.get(2).toString());
+      }
+    } finally {
+      ResourceLeakDetector.setLevel(level);
+    }
+  }
+
+  @Test(timeout = 30_000)
+  public void testViewsShareUnpooledChunks(TestContext should) {
+    final List<Response> bulks = new ArrayList<>();
+    final RESPParser parser = new RESPParser(collect(should, bulks), 16, true, false);
+
+    final ByteBuf chunk = RESPParser.VIEW_ALLOCATOR.ioBuffer();
+    chunk.writeCharSequence("$6\r\nfoobar\r\n", StandardCharsets.US_ASCII);
+    parser.handle(chunk);
+
+    // the chunk is not recycled, it is kept as is and the value is a view over it
+    should.assertEquals(1, chunk.refCnt());
+    should.assertEquals(1, bulks.size());
+    should.assertEquals("foobar", bulks.get(0).toString());
+    chunk.setByte(4, 'g');
+    should.assertEquals("goobar", bulks.get(0).toString());
+  }
+
+  @Test(timeout = 30_000)
+  public void testBulkInManyChunks(TestContext should) {
+    final Async test = should.async();
+    final StringBuilder value = new StringBuilder();
+    for (int i = 0; i < 100_000; i++) {
+      value.append((char) ('a' + i % 26));
+    }
+
+    final RESPParser parser = new RESPParser(new ParserHandler() {
+      @Override
+      public void handle(Response response) {
+        should.assertEquals(value.toString(), response.toString());
+        test.complete();
+      }
+
+      @Override
+      public void fatal(Throwable t) {
+        should.fail(t);
+      }
+
+      @Override
+      public void fail(Throwable t) {
+        should.fail(t);
+      }
+    }, 16);
+
+    final Buffer reply = Buffer.buffer("$" + value.length() + "\r\n" + value + "\r\n");
+    for (int i = 0; i < reply.length(); i += 1000) {
+      parser.handle(reply.getBuffer(i, Math.min(i + 1000, reply.length())));
+    }
+  }
+
   @Test(timeout = 30_000)
   public void testEmptyBulk(TestContext should) {
     final Async test = should.async();
@@ -256,6 +509,20 @@ public class ReplyParserTest {
     parser.handle(Buffer.buffer("*-1\r\n"));
   }
 
+  @Test(timeout = 30_000)
+  public void testNullMap(TestContext should) {
+    final List<Response> replies = new ArrayList<>();
+    final RESPParser parser = new RESPParser(collect(should, replies), 16);
+
+    parser.handle(Buffer.buffer("%-1\r\n%1\r\n+a\r\n%-1\r\n"));
+
+    should.assertEquals(2, replies.size());
+    should.assertNull(replies.get(0));
+    // a map of one pair with a null value
+    should.assertEquals(2, replies.get(1).size());
+    should.assertNull(replies.get(1).get(1));
+  }
+
   @Test(timeout = 30_000)
   public void testMulti(TestContext should) {
     final Async test = should.async();
@@ -341,6 +608,39 @@ public class ReplyParserTest {
     parser.handle(Buffer.buffer("*5\r\n:1\r\n:2\r\n:3\r\n:4\r\n$6\r\nfoobar\r\n"));
   }
 
+  @Test(timeout = 30_000)
+  public void testMultiOfMixedByteByByte(TestContext should) {
+    final Async test = should.async();
+
+    final RESPParser parser = new RESPParser(new ParserHandler() {
+      @Override
+      public void handle(Response response) {
+        should.assertEquals(5, response.size());
+        should.assertEquals(-1, response.get(0).toInteger());
+        should.assertEquals("OK", response.get(1).toString());
+        should.assertNull(response.get(2));
+        should.assertEquals("", response.get(3).toString());
+        should.assertEquals("foobar", response.get(4).get(0).toString());
+        test.complete();
+      }
+
+      @Override
+      public void fatal(Throwable t) {
+        should.fail(t);
+      }
+
+      @Override
+      public void fail(Throwable t) {
+        should.fail(t);
+      }
+    }, 16);
+
+    final Buffer reply = Buffer.buffer("*5\r\n:-1\r\n+OK\r\n$-1\r\n$0\r\n\r\n*1\r\n$6\r\nfoobar\r\n");
+    for (int i = 0; i < reply.length(); i++) {
+      parser.handle(reply.getBuffer(i, i + 1));
+    }
+  }
+
   @Test(timeout = 30_000)
   public void testMultiOfMulti(TestContext should) {
     final Async test = should.async();
@@ -452,4 +752,470 @@ public class ReplyParserTest {
       "$5\r\n" +
       "91600\r\n"));
   }
+
+  @Test(timeout = 30_000)
+  public void testStreamBulk(TestContext should) {
+    final Async test = should.async();
+
+    final AtomicInteger pauses = new AtomicInteger();
+    final AtomicInteger resumes = new AtomicInteger();
+    final Buffer received = Buffer.buffer();
+
+    // stands for the socket
+    final ReadStream<Buffer> upstream = upstream(pauses, resumes);
+
+    final List<ReplyStream<Buffer>> streams = new ArrayList<>();
+
+    final RESPParser parser = new RESPParser(new ParserHandler() {
+      @Override
+      public ReplyStream<Buffer> bulkStream(int length) {
+        should.assertEquals(100000, length);
+        final ReplyStream<Buffer> stream = new ReplyStream<>(rule.vertx().getOrCreateContext(), upstream);
+        stream
+          .handler(received::appendBuffer)
+          .endHandler(v -> {
+            should.assertEquals(100000, received.length());
+            should.assertEquals('a', (char) received.getByte(99999));
+          })
+          // the consumer is slow to start
+          .pause();
+        streams.add(stream);
+        return stream;
+      }
+
+      @Override
+      public void handle(Response response) {
+        // only the reply after the stream is aggregated
+        should.assertEquals("OK", response.toString());
+        should.assertEquals(100000, received.length());
+        test.complete();
+      }
+
+      @Override
+      public void fatal(Throwable t) {
+        should.fail(t);
+      }
+
+      @Override
+      public void fail(Throwable t) {
+        should.fail(t);
+      }
+    }, 16);
+
+    final StringBuilder payload = new StringBuilder();
+    for (int i = 0; i < 100000; i++) {
+      payload.append('a');
+    }
+    final Buffer reply = Buffer.buffer("$100000\r\n" + payload + "\r\n");
+
+    for (int i = 0; i < reply.length(); i += 1000) {
+      parser.handle(reply.slice(i, Math.min(i + 1000, reply.length())));
+    }
+
+    // nothing was delivered while paused and the upstream was asked to stop
+    should.assertEquals(0, received.length());
+    should.assertTrue(pauses.get() > 0);
+
+    streams.get(0).resume();
+    // draining happens on the context
+    rule.vertx().runOnContext(v -> {
+      should.assertTrue(resumes.get() > 0);
+      parser.handle(Buffer.buffer("+OK\r\n"));
+    });
+  }
+
+  @Test(timeout = 30_000)
+  public void testStreamMulti(TestContext should) {
+    final Async test = should.async();
+
+    final AtomicInteger pauses = new AtomicInteger();
+    final AtomicInteger resumes = new AtomicInteger();
+    final List<Response> received = new ArrayList<>();
+
+    final RESPParser parser = new RESPParser(new ParserHandler() {
+      @Override
+      public ReplyStream<Response> multiStream(int length) {
+        should.assertEquals(3, length);
+        final ReplyStream<Response> stream = new ReplyStream<>(rule.vertx().getOrCreateContext(), upstream(pauses, resumes));
+        stream
+          .handler(received::add)
+          .endHandler(v -> {
+            should.assertEquals(3, received.size());
+            should.assertEquals("foo", received.get(0).toString());
+            // nested multis are a single element
+            should.assertEquals(2, received.get(1).size());
+            should.assertEquals("b", received.get(1).get(1).toString());
+            should.assertEquals(42L, received.get(2).toLong());
+            test.complete();
+          });
+        return stream;
+      }
+
+      @Override
+      public void handle(Response response) {
+        should.fail("The multi should be streamed");
+      }
+
+      @Override
+      public void fatal(Throwable t) {
+        should.fail(t);
+      }
+
+      @Override
+      public void fail(Throwable t) {
+        should.fail(t);
+      }
+    }, 16);
+
+    final Buffer reply = Buffer.buffer("*3\r\n$3\r\nfoo\r\n*2\r\n$1\r\na\r\n$1\r\nb\r\n:42\r\n");
+
+    for (int i = 0; i < reply.length(); i++) {
+      parser.handle(reply.slice(i, i + 1));
+    }
+  }
+
+  @Test(timeout = 30_000)
+  public void testResp3(TestContext should) {
+    final Async test = should.async();
+    final List<Response> replies = new ArrayList<>();
+
+    final RESPParser parser = new RESPParser(new ParserHandler() {
+      @Override
+      public void handle(Response response) {
+        replies.add(response);
+        if (replies.size() == 10) {
+          // map
+          should.assertEquals(ResponseType.MULTI, replies.get(0).type());
+          should.assertTrue(((MultiType) replies.get(0)).isMap());
+          should.assertEquals(4, replies.get(0).size());
+          should.assertEquals(1L, replies.get(0).get("first").toLong());
+          // set
+          should.assertEquals(2, replies.get(1).size());
+          // double
+          should.assertEquals(ResponseType.NUMBER, replies.get(2).type());
+          should.assertEquals(3.14, replies.get(2).toDouble());
+          should.assertEquals(Double.POSITIVE_INFINITY, replies.get(3).toDouble());
+          // boolean
+          should.assertEquals(ResponseType.BOOLEAN, replies.get(4).type());
+          should.assertTrue(replies.get(4).toBoolean());
+          // null
+          should.assertNull(replies.get(5));
+          // big number
+          should.assertEquals("3492890328409238509324850943850943825024385", replies.get(6).toString());
+          // verbatim string
+          should.assertEquals("Some string", replies.get(7).toString());
+          // blob error
+          should.assertEquals(ResponseType.ERROR, replies.get(8).type());
+          should.assertEquals("SYNTAX invalid syntax", replies.get(8).toString());
+          // attributes are skipped, also inside a multi
+          should.assertEquals(2, replies.get(9).size());
+          should.assertEquals("b", replies.get(9).get(1).toString());
+          test.complete();
+        }
+      }
+
+      @Override
+      public void fatal(Throwable t) {
+        should.fail(t);
+      }
+
+      @Override
+      public void fail(Throwable t) {
+        should.fail(t);
+      }
+    }, 16);
+
+    final Buffer replies3 = Buffer.buffer(
+      "%2\r\n+first\r\n:1\r\n+second\r\n:2\r\n" +
+      "~2\r\n+orange\r\n+apple\r\n" +
+      ",3.14\r\n" +
+      ",inf\r\n" +
+      "#t\r\n" +
+      "_\r\n" +
+      "(3492890328409238509324850943850943825024385\r\n" +
+      "=15\r\ntxt:Some string\r\n" +
+      "!21\r\nSYNTAX invalid syntax\r\n" +
+      "|1\r\n+ttl\r\n:3600\r\n*2\r\n$1\r\na\r\n|1\r\n+key\r\n*1\r\n:1\r\n$1\r\nb\r\n");
+
+    // byte by byte to exercise the incremental state
+    for (int i = 0; i < replies3.length(); i++) {
+      parser.handle(replies3.slice(i, i + 1));
+    }
+  }
+
+  @Test(timeout = 30_000)
+  public void testResp3Push(TestContext should) {
+    final Async test = should.async();
+
+    final RESPParser parser = new RESPParser(new ParserHandler() {
+      @Override
+      public void handle(Response response) {
+        should.assertEquals(ResponseType.PUSH, response.type());
+        should.assertEquals("message", response.get(0).toString());
+        should.assertEquals("hello", response.get(2).toString());
+        test.complete();
+      }
+
+      @Override
+      public void fatal(Throwable t) {
+        should.fail(t);
+      }
+
+      @Override
+      public void fail(Throwable t) {
+        should.fail(t);
+      }
+    }, 16);
+
+    parser.handle(Buffer.buffer(">3\r\n$7\r\nmessage\r\n$7\r\nchannel\r\n$5\r\nhello\r\n"));
+  }
+
+  @Test(timeout = 30_000)
+  public void testLazyMulti(TestContext should) {
+    final Buffer replies = Buffer.buffer(
+      "*6\r\n$5\r\nfield\r\n$5\r\nvalue\r\n+status\r\n:-42\r\n$-1\r\n*3\r\n*0\r\n$0\r\n\r\n*1\r\n+OK\r\n" +
+      "+PONG\r\n" +
+      "%2\r\n+a\r\n,1.5\r\n+b\r\n|1\r\n+ttl\r\n:1\r\n#t\r\n");
+
+    final List<Response> eager = new ArrayList<>();
+    final List<Response> lazy = new ArrayList<>();
+
+    final RESPParser eagerParser = new RESPParser(collect(should, eager), 16);
+    eagerParser.handle(replies);
+
+    // in one go and byte by byte
+    for (int chunk : new int[] { replies.length(), 1 }) {
+      lazy.clear();
+      final RESPParser lazyParser = new RESPParser(collect(should, lazy), 16, false, true);
+      for (int i = 0; i < replies.length(); i += chunk) {
+        lazyParser.handle(replies.slice(i, Math.min(i + chunk, replies.length())));
+      }
+
+      should.assertEquals(3, lazy.size());
+      should.assertTrue(lazy.get(0) instanceof LazyMultiType);
+      for (int i = 0; i < eager.size(); i++) {
+        should.assertEquals(eager.get(i).toString(), lazy.get(i).toString());
+      }
+
+      final Response multi = lazy.get(0);
+      should.assertEquals(6, multi.size());
+      should.assertEquals("value", multi.get("field").toString());
+      should.assertEquals(ResponseType.SIMPLE, multi.get(2).type());
+      should.assertEquals(-42L, multi.get(3).toLong());
+      should.assertNull(multi.get(4));
+      should.assertEquals(0, multi.get(5).get(0).size());
+      should.assertEquals("", multi.get(5).get(1).toString());
+      should.assertEquals("OK", multi.get(5).get(2).get(0).toString());
+      // random access after sequential access
+      should.assertEquals("field", multi.get(0).toString());
+
+      final Response map = lazy.get(2);
+      should.assertTrue(((LazyMultiType) map).isMap());
+      should.assertEquals(4, map.size());
+      should.assertEquals(1.5, map.get("a").toDouble());
+      should.assertTrue(map.get("b").toBoolean());
+    }
+  }
+
+  @Test(timeout = 30_000)
+  public void testSharedScalars(TestContext should) {
+    final List<Response> replies = new ArrayList<>();
+    final RESPParser parser = new RESPParser(collect(should, replies), 16);
+
+    parser.handle(Buffer.buffer(":1\r\n:1\r\n:-1\r\n:4096\r\n+PONG\r\n+QUEUED\r\n+PONGS\r\n" +
+      "-NOSCRIPT No matching script. Please use EVAL.\r\n-MOVED 3999 127.0.0.1:6381\r\n"));
+
+    should.assertEquals(9, replies.size());
+    should.assertTrue(replies.get(0) == replies.get(1));
+    should.assertEquals(-1L, replies.get(2).toLong());
+    should.assertEquals(4096L, replies.get(3).toLong());
+    should.assertTrue(replies.get(4) == SimpleStringType.PONG);
+    should.assertTrue(replies.get(5) == SimpleStringType.QUEUED);
+    should.assertEquals("PONGS", replies.get(6).toString());
+    should.assertTrue(replies.get(7) == ErrorType.NOSCRIPT);
+    should.assertTrue(((ErrorType) replies.get(7)).is("NOSCRIPT"));
+    should.assertTrue(((ErrorType) replies.get(8)).is("MOVED"));
+    should.assertEquals("127.0.0.1:6381", ((ErrorType) replies.get(8)).slice(' ', 2));
+  }
+
+  @Test
+  public void testDecoders(TestContext should) {
+    final Deque<ResponseDecoder<?>> decoders = new ArrayDeque<>(Arrays.asList(
+      ResponseDecoder.longValue(), ResponseDecoder.longValue(), ResponseDecoder.string(), ResponseDecoder.bytes(),
+      ResponseDecoder.list(), ResponseDecoder.map(), ResponseDecoder.json(), ResponseDecoder.doubleValue(),
+      ResponseDecoder.string(), ResponseDecoder.list(), ResponseDecoder.list(), ResponseDecoder.longValue(),
+      ResponseDecoder.longValue()));
+    final List<Object> results = new ArrayList<>();
+    final List<Response> replies = new ArrayList<>();
+
+    final RESPParser parser = new RESPParser(new ParserHandler() {
+      @Override
+      public void handle(Response response) {
+        decoders.poll();
+        replies.add(response);
+      }
+
+      @Override
+      public void fatal(Throwable t) {
+        should.fail(t);
+      }
+
+      @Override
+      public void fail(Throwable t) {
+        should.fail(t);
+      }
+
+      @Override
+      public ResponseDecoder<?> decoder() {
+        return decoders.peek();
+      }
+
+      @Override
+      public void decoded(Throwable failure) {
+        final ResponseDecoder<?> decoder = decoders.poll();
+        results.add(failure != null ? failure : decoder.result());
+      }
+    }, 16);
+
+    parser.handle(Buffer.buffer(":42\r\n$2\r\n-7\r\n$5\r\nol"));
+    parser.handle(Buffer.buffer("á!\r\n$3\r\nabc\r\n*3\r\n$1\r\na\r\n:2\r\n$-1\r\n"));
+    parser.handle(Buffer.buffer("*4\r\n$1\r\nk\r\n$1\r\nv\r\n$1\r\nn\r\n:1\r\n"));
+    parser.handle(Buffer.buffer("%2\r\n+a\r\n#t\r\n+b\r\n*2\r\n:1\r\n|1\r\n+ttl\r\n:60\r\n:3\r\n,3.5\r\n,1.5\r\n"));
+    // nested errors, decoder exceptions and error replies do not break the pipeline
+    parser.handle(Buffer.buffer("*2\r\n+OK\r\n-ERR no\r\n*1\r\n*0\r\n-WRONGTYPE\r\n:5\r\n"));
+
+    should.assertEquals(12, results.size());
+    should.assertEquals(42L, results.get(0));
+    should.assertEquals(-7L, results.get(1));
+    should.assertEquals("olá!", results.get(2));
+    should.assertEquals("abc", new String((byte[]) results.get(3)));
+    should.assertEquals(Arrays.asList("a", "2", null), results.get(4));
+    final Map<?, ?> map = (Map<?, ?>) results.get(5);
+    should.assertEquals("v", map.get("k"));
+    should.assertEquals("1", map.get("n"));
+    final JsonObject json = (JsonObject) results.get(6);
+    should.assertEquals(true, json.getBoolean("a"));
+    should.assertEquals(2, json.getJsonArray("b").size());
+    should.assertEquals(3L, json.getJsonArray("b").getLong(1));
+    should.assertEquals(3.5, results.get(7));
+    should.assertEquals("1.5", results.get(8));
+    should.assertTrue(((ErrorType) results.get(9)).is("ERR"));
+    should.assertTrue(results.get(10) instanceof IllegalStateException);
+    // the error reply is not decoded
+    should.assertEquals(1, replies.size());
+    should.assertTrue(((ErrorType) replies.get(0)).is("WRONGTYPE"));
+    // the pipeline is still in sync
+    should.assertEquals(5L, results.get(11));
+    should.assertTrue(decoders.isEmpty());
+  }
+
+  @Test
+  public void testReceiveBufferCompaction(TestContext should) {
+    final List<Response> replies = new ArrayList<>();
+    final RESPParser parser = new RESPParser(collect(should, replies), 16, true, false, 64 * 1024);
+
+    final StringBuilder value = new StringBuilder();
+    while (value.length() < 1024) {
+      value.append("0123456789abcdef");
+    }
+    final Buffer burst = Buffer.buffer();
+    for (int i = 0; i < 40; i++) {
+      burst.appendString("$1024\r\n").appendString(value.toString()).appendString("\r\n");
+    }
+    // the start of the next reply
+    burst.appendString("$1024\r\n0123");
+
+    parser.handle(burst);
+    should.assertEquals(40, replies.size());
+    // only the start of the payload of the next reply is retained, not the whole burst
+    should.assertEquals(4, parser.retainedBytes());
+
+    parser.handle(Buffer.buffer(value.substring(4) + "\r\n"));
+    should.assertEquals(41, replies.size());
+    should.assertEquals(value.toString(), replies.get(40).toString());
+    // values are still valid after the memory is recycled
+    should.assertEquals(value.toString(), replies.get(0).toString());
+    should.assertEquals(0, parser.retainedBytes());
+  }
+
+  @Test
+  public void testReceiveBufferLimit(TestContext should) {
+    final AtomicInteger fatal = new AtomicInteger();
+    final RESPParser parser = new RESPParser(new ParserHandler() {
+      @Override
+      public void handle(Response response) {
+        should.fail("Unexpected reply " + response);
+      }
+
+      @Override
+      public void fatal(Throwable t) {
+        fatal.incrementAndGet();
+      }
+
+      @Override
+      public void fail(Throwable t) {
+        should.fail(t);
+      }
+    }, 16, false, false, 1024);
+
+    parser.handle(Buffer.buffer("$2048\r\n").appendBytes(new byte[1000]));
+    should.assertEquals(0, fatal.get());
+    parser.handle(Buffer.buffer(new byte[1000]));
+    should.assertEquals(1, fatal.get());
+  }
+
+  private static ParserHandler collect(TestContext should, List<Response> replies) {
+    return new ParserHandler() {
+      @Override
+      public void handle(Response response) {
+        replies.add(response);
+      }
+
+      @Override
+      public void fatal(Throwable t) {
+        should.fail(t);
+      }
+
+      @Override
+      public void fail(Throwable t) {
+        should.fail(t);
+      }
+    };
+  }
+
+  private static ReadStream<Buffer> upstream(AtomicInteger pauses, AtomicInteger resumes) {
+    return new ReadStream<Buffer>() {
+      @Override
+      public ReadStream<Buffer> exceptionHandler(Handler<Throwable> handler) {
+        return this;
+      }
+
+      @Override
+      public ReadStream<Buffer> handler(Handler<Buffer> handler) {
+        return this;
+      }
+
+      @Override
+      public ReadStream<Buffer> pause() {
+        pauses.incrementAndGet();
+        return this;
+      }
+
+      @Override
+      public ReadStream<Buffer> resume() {
+        resumes.incrementAndGet();
+        return this;
+      }
+
+      @Override
+      public ReadStream<Buffer> fetch(long amount) {
+        return this;
+      }
+
+      @Override
+      public ReadStream<Buffer> endHandler(Handler<Void> endHandler) {
+        return this;
+      }
+    };
+  }
 }
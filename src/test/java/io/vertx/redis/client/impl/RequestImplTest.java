@@ -1,9 +1,18 @@
 package io.vertx.redis.client.impl;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.redis.client.Command;
+import io.vertx.redis.client.PreparedRequest;
 import io.vertx.redis.client.Request;
 import org.junit.Test;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
 import static org.junit.Assert.*;
 
 public class RequestImplTest {
@@ -19,4 +28,119 @@ public class RequestImplTest {
     RequestImpl r = (RequestImpl) Request.cmd(Command.LLEN).arg("mylist");
     System.out.println(r.encode());
   }
+
+  @Test
+  public void testEncodedLength() {
+    RequestImpl r = (RequestImpl) Request.cmd(Command.MSET)
+      .arg("key").arg("")
+      .arg(-1).arg(255).arg(256).arg(-42)
+      .arg(Long.MAX_VALUE).arg(Long.MIN_VALUE)
+      .nullArg();
+
+    ByteBuf buffer = Unpooled.buffer(r.encodedLength(), r.encodedLength());
+    r.encode(buffer);
+    assertEquals(r.encodedLength(), buffer.readableBytes());
+    assertEquals(
+      "*10\r\n$4\r\nmset\r\n$3\r\nkey\r\n$0\r\n\r\n$2\r\n-1\r\n$3\r\n255\r\n$3\r\n256\r\n$3\r\n-42\r\n" +
+        "$19\r\n9223372036854775807\r\n$20\r\n-9223372036854775808\r\n$-1\r\n",
+      buffer.toString(StandardCharsets.ISO_8859_1));
+  }
+
+  @Test
+  public void testWriteNum() {
+    long[] values = {0, 9, 10, 99, 100, 255, 256, 999999, 1000000, -1, -9, -10, -256, Long.MAX_VALUE, Long.MIN_VALUE};
+    for (long value : values) {
+      ByteBuf buffer = Unpooled.buffer();
+      RESPEncoder.writeNum(buffer, value);
+      assertEquals(Long.toString(value), buffer.toString(StandardCharsets.ISO_8859_1));
+      assertEquals(Long.toString(value).length(), RESPEncoder.numLength(value));
+      assertArrayEquals(Long.toString(value).getBytes(StandardCharsets.ISO_8859_1), RESPEncoder.numToBytes(value));
+    }
+  }
+
+  @Test
+  public void testReferencedArgument() {
+    byte[] payload = new byte[RequestImpl.REFERENCE_THRESHOLD];
+    Arrays.fill(payload, (byte) 'x');
+    Buffer value = Buffer.buffer(payload);
+
+    RequestImpl r = (RequestImpl) Request.cmd(Command.SET).arg("key").arg(value).arg("EX").arg(10);
+    assertTrue(r.hasReferences());
+    assertArrayEquals(payload, r.getArgs().get(1));
+
+    CompositeByteBuf composite = Unpooled.compositeBuffer(Integer.MAX_VALUE);
+    r.encode(composite, UnpooledByteBufAllocator.DEFAULT);
+    assertEquals(r.encodedLength(), composite.readableBytes());
+    assertEquals(r.encode().getByteBuf(), composite);
+
+    // the payload is written from the argument buffer, it was not copied
+    value.setByte(0, (byte) 'y');
+    // followed by "\r\n$2\r\nEX\r\n$2\r\n10\r\n"
+    assertEquals('y', composite.getByte(composite.readableBytes() - 18 - payload.length));
+    composite.release();
+  }
+
+  @Test
+  public void testStringArguments() {
+    String[] values = {"", "key:1", "ol\u00e1!", "\u20ac", "\ud83d\ude00", "lone \ud83d surrogate"};
+    Request request = Request.cmd(Command.MSET);
+    for (String value : values) {
+      request.arg(value);
+    }
+    RequestImpl r = (RequestImpl) request;
+
+    StringBuilder expected = new StringBuilder("*7\r\n$4\r\nmset\r\n");
+    for (String value : values) {
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      expected.append('$').append(bytes.length).append("\r\n").append(new String(bytes, StandardCharsets.ISO_8859_1)).append("\r\n");
+    }
+
+    ByteBuf buffer = Unpooled.buffer(r.encodedLength(), r.encodedLength());
+    r.encode(buffer);
+    assertEquals(expected.toString(), buffer.toString(StandardCharsets.ISO_8859_1));
+
+    for (int i = 0; i < values.length; i++) {
+      assertArrayEquals(values[i].getBytes(StandardCharsets.UTF_8), r.getArgs().get(i));
+    }
+  }
+
+  @Test
+  public void testPreparedRequest() {
+    PreparedRequest hincrby = Request.prepare(Command.HINCRBY, PreparedRequest.PLACEHOLDER, "field", 1);
+    assertEquals(1, hincrby.placeholders());
+
+    RequestImpl r = (RequestImpl) hincrby.request();
+    assertFalse(r.complete());
+    r.arg("stats:1");
+    assertTrue(r.complete());
+
+    Buffer expected = ((RequestImpl) Request.cmd(Command.HINCRBY).arg("stats:1").arg("field").arg(1)).encode();
+    assertEquals(expected, r.encode());
+    assertEquals(expected.length(), r.encodedLength());
+    assertArrayEquals("stats:1".getBytes(StandardCharsets.UTF_8), r.getArgs().get(0));
+    assertArrayEquals("field".getBytes(StandardCharsets.UTF_8), r.getArgs().get(1));
+    assertEquals(3, r.getArgs().size());
+
+    try {
+      r.arg("stats:2");
+      fail("All the placeholders are filled");
+    } catch (IllegalStateException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testPreparedRequestPlaceholders() {
+    Buffer payload = Buffer.buffer(new byte[RequestImpl.REFERENCE_THRESHOLD]);
+    PreparedRequest set = Request.prepare(Command.SET, PreparedRequest.PLACEHOLDER, PreparedRequest.PLACEHOLDER, "EX", null, PreparedRequest.PLACEHOLDER);
+
+    RequestImpl r = (RequestImpl) set.request().arg("key").arg(payload).arg(10);
+    RequestImpl expected = (RequestImpl) Request.cmd(Command.SET).arg("key").arg(payload).arg("EX").nullArg().arg(10);
+    assertEquals(expected.encode(), r.encode());
+
+    CompositeByteBuf composite = Unpooled.compositeBuffer(Integer.MAX_VALUE);
+    r.encode(composite, UnpooledByteBufAllocator.DEFAULT);
+    assertEquals(expected.encode().getByteBuf(), composite);
+    composite.release();
+  }
 }
@@ -0,0 +1,52 @@
+package io.vertx.redis.client.impl;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class TimeoutWheelTest {
+
+  @Test
+  public void testTimeoutWheel() {
+    final long tick = TimeUnit.MILLISECONDS.toNanos(TimeoutWheel.TICK);
+    TimeoutWheel wheel = new TimeoutWheel(4, 0);
+    // 2 ticks, 1 tick and 7 ticks (a later round of the wheel)
+    wheel.add(0, 20, 0);
+    wheel.add(1, 1, 0);
+    wheel.add(2, 70, 0);
+
+    // request 0 is answered, 1 is not
+    assertEquals(1, wheel.advance(1, tick));
+    assertEquals(-1, wheel.advance(2, 2 * tick));
+    assertEquals(-1, wheel.advance(2, 3 * tick));
+    for (int i = 4; i < 7; i++) {
+      assertEquals(-1, wheel.advance(2, i * tick));
+    }
+    assertEquals(2, wheel.advance(2, 7 * tick));
+
+    // all answered
+    wheel.add(3, 10, 7 * tick);
+    assertEquals(-1, wheel.advance(4, 8 * tick));
+    assertTrue(wheel.isEmpty());
+  }
+
+  @Test
+  public void testTimeoutWheelLateTimer() {
+    final long tick = TimeUnit.MILLISECONDS.toNanos(TimeoutWheel.TICK);
+    TimeoutWheel wheel = new TimeoutWheel(4, 0);
+    wheel.add(0, 20, 0);
+    wheel.add(1, 30, 0);
+
+    // the timer fired once while 3 ticks went by, the missed slots are visited
+    assertEquals(0, wheel.advance(0, 3 * tick));
+
+    // a deadline added while the wheel is behind the clock does not expire early
+    wheel.add(2, 10, 20 * tick);
+    assertEquals(-1, wheel.advance(2, 20 * tick));
+    // the timer fired once while more than a round went by
+    assertEquals(2, wheel.advance(2, 30 * tick));
+    assertTrue(wheel.isEmpty());
+  }
+}
@@ -8,6 +8,8 @@ import io.vertx.redis.client.*;
 import org.junit.*;
 import org.junit.runner.RunWith;
 
+import java.util.UUID;
+
 @RunWith(VertxUnitRunner.class)
 public class RedisSentinelTest {
 
@@ -99,4 +101,45 @@ public class RedisSentinelTest {
           });
       });
   }
+
+  @Test(timeout = 30_000L)
+  public void testSendWhileConnectionsCheckedOut(TestContext should) {
+    final Async test = should.async();
+
+    final Redis client = Redis.createClient(
+      rule.vertx(),
+      new RedisOptions()
+        .setType(RedisClientType.SENTINEL)
+        .addEndpoint("redis://localhost:5000")
+        .addEndpoint("redis://localhost:5001")
+        .addEndpoint("redis://localhost:5002")
+        .setMasterName("sentinel7000")
+        .setRole(RedisRole.MASTER)
+        .setMaxPoolSize(2)
+        .setMaxPoolWaiting(16));
+
+    // the user holds every pooled connection to the master
+    client.connect(first -> {
+      should.assertTrue(first.succeeded());
+      client.connect(second -> {
+        should.assertTrue(second.succeeded());
+
+        // blocking commands go through a dedicated connection, outside of the pool
+        client.send(Request.cmd(Command.BLPOP).arg(UUID.randomUUID().toString()).arg(1), blpop -> {
+          should.assertTrue(blpop.succeeded());
+          should.assertNull(blpop.result());
+
+          // and so do the shared connections
+          client.send(Request.cmd(Command.INFO), info -> {
+            should.assertTrue(info.succeeded());
+            should.assertTrue(info.result().toString().contains("tcp_port:7000"));
+            first.result().close();
+            second.result().close();
+            client.close();
+            test.complete();
+          });
+        });
+      });
+    });
+  }
 }
@@ -1,5 +1,6 @@
 package io.vertx.redis.client.test;
 
+import io.vertx.core.Context;
 import io.vertx.core.Vertx;
 import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
@@ -10,9 +11,13 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.IntStream;
 
 import static io.vertx.redis.client.Command.*;
@@ -116,6 +121,177 @@ public class RedisTest {
       });
   }
 
+  @Test
+  public void emptyBatchTest(TestContext should) {
+    final Async test = should.async();
+
+    final Redis client = Redis.createClient(rule.vertx(), "redis://localhost:7006");
+
+    client.connect(create -> {
+      should.assertTrue(create.succeeded());
+
+      create.result().batch(Collections.emptyList(), batch -> {
+        should.assertTrue(batch.succeeded());
+        should.assertTrue(batch.result().isEmpty());
+        client.close();
+        test.complete();
+      });
+    });
+  }
+
+  @Test
+  public void batchOrderTest(TestContext should) {
+    final Async test = should.async();
+
+    final Redis client = Redis.createClient(rule.vertx(), "redis://localhost:7006");
+
+    client.connect(create -> {
+      should.assertTrue(create.succeeded());
+
+      final List<Request> commands = new ArrayList<>();
+      for (int i = 0; i < 1000; i++) {
+        commands.add(cmd(ECHO).arg(i));
+      }
+
+      create.result().batch(commands, batch -> {
+        should.assertTrue(batch.succeeded());
+        // the replies are in the order of the commands
+        should.assertEquals(1000, batch.result().size());
+        for (int i = 0; i < 1000; i++) {
+          should.assertEquals(i, batch.result().get(i).toInteger());
+        }
+        client.close();
+        test.complete();
+      });
+    });
+  }
+
+  @Test
+  public void batchFailureTest(TestContext should) {
+    final Async test = should.async();
+    final String key = UUID.randomUUID().toString();
+
+    final Redis client = Redis.createClient(rule.vertx(), "redis://localhost:7006");
+
+    client.connect(create -> {
+      should.assertTrue(create.succeeded());
+
+      final RedisConnection redis = create.result();
+
+      redis.batch(Arrays.asList(
+        cmd(SET).arg(key).arg("a"),
+        // fails half way, the key does not hold a list
+        cmd(LPOP).arg(key),
+        cmd(ECHO).arg("after")
+      ), batch -> {
+        should.assertTrue(batch.failed());
+        should.assertTrue(batch.cause().getMessage().startsWith("WRONGTYPE"));
+
+        // the commands after the failure were still executed and their replies consumed
+        redis.send(cmd(GET).arg(key), get -> {
+          should.assertTrue(get.succeeded());
+          should.assertEquals("a", get.result().toString());
+          client.close();
+          test.complete();
+        });
+      });
+    });
+  }
+
+  @Test(timeout = 30_000L)
+  public void sendFromManyThreadsTest(TestContext should) {
+    final Async test = should.async();
+    final String key = UUID.randomUUID().toString();
+    final int threads = 4;
+    final int requests = 1000;
+
+    // room for every request, none is rejected with a full queue
+    final Redis client = Redis.createClient(rule.vertx(), new RedisOptions()
+      .setEndpoint("redis://localhost:7006")
+      .setMaxWaitingHandlers(threads * requests + 1));
+
+    client.connect(create -> {
+      should.assertTrue(create.succeeded());
+
+      final RedisConnection redis = create.result();
+      final AtomicInteger pending = new AtomicInteger(threads * requests);
+
+      // the requests are submitted from outside of the event loop, concurrently
+      for (int t = 0; t < threads; t++) {
+        final int thread = t;
+        new Thread(() -> {
+          for (int i = 0; i < requests; i++) {
+            redis.send(cmd(RPUSH).arg(key).arg(thread + ":" + i), push -> {
+              should.assertTrue(push.succeeded());
+              if (pending.decrementAndGet() == 0) {
+                redis.send(cmd(LRANGE).arg(key).arg(0).arg(-1), range -> {
+                  should.assertTrue(range.succeeded());
+                  // nothing is lost and the requests of each thread keep their order
+                  should.assertEquals(threads * requests, range.result().size());
+                  final int[] next = new int[threads];
+                  for (Response item : range.result()) {
+                    final String[] value = item.toString().split(":");
+                    should.assertEquals(next[Integer.parseInt(value[0])]++, Integer.parseInt(value[1]));
+                  }
+                  client.close();
+                  test.complete();
+                });
+              }
+            });
+          }
+        }).start();
+      }
+    });
+  }
+
+  @Test(timeout = 30_000L)
+  public void repliesOnConnectionContextTest(TestContext should) {
+    final Async test = should.async();
+
+    final Redis client = Redis.createClient(rule.vertx(), "redis://localhost:7006");
+
+    client.connect(create -> {
+      should.assertTrue(create.succeeded());
+
+      final RedisConnection redis = create.result();
+      // the context of the first reply, every other one must be dispatched on it
+      final AtomicReference<Context> context = new AtomicReference<>();
+      final AtomicInteger next = new AtomicInteger();
+
+      // replies are dispatched inline when read on the connection context, in the order of the requests, and hop to
+      // the connection context when sent from another thread
+      final Thread foreign = new Thread(() -> {
+        for (int i = 100; i < 200; i++) {
+          final int index = i;
+          redis.send(cmd(ECHO).arg(i), echo -> {
+            should.assertTrue(echo.succeeded());
+            should.assertTrue(context.get() == Vertx.currentContext());
+            should.assertEquals(index, echo.result().toInteger());
+            should.assertEquals(index, next.getAndIncrement());
+            if (index == 199) {
+              client.close();
+              test.complete();
+            }
+          });
+        }
+      });
+
+      for (int i = 0; i < 100; i++) {
+        final int index = i;
+        redis.send(cmd(ECHO).arg(i), echo -> {
+          should.assertTrue(echo.succeeded());
+          context.compareAndSet(null, Vertx.currentContext());
+          should.assertTrue(context.get() == Vertx.currentContext());
+          should.assertEquals(index, echo.result().toInteger());
+          should.assertEquals(index, next.getAndIncrement());
+          if (index == 99) {
+            foreign.start();
+          }
+        });
+      }
+    });
+  }
+
   @Test
   public void simpleTestAPI(TestContext should) {
     final Async test = should.async();
@@ -169,4 +345,108 @@ public class RedisTest {
         });
       });
   }
+
+  @Test
+  public void sharedConnectionsTest(TestContext should) {
+    final AtomicInteger cnt = new AtomicInteger(100);
+    final Async test = should.async();
+
+    final Redis client = Redis.createClient(rule.vertx(), new RedisOptions()
+      .setEndpoint("redis://localhost:7006")
+      .setSharedConnections(2));
+
+    // connection state cannot be changed through a shared connection
+    client.send(cmd(SUBSCRIBE).arg("news"), subscribe -> {
+      should.assertTrue(subscribe.failed());
+
+      client.send(cmd(CLIENT).arg("REPLY").arg("OFF"), reply -> {
+        should.assertTrue(reply.failed());
+
+        // blocking commands go through a dedicated connection
+        client.send(cmd(BLPOP).arg(UUID.randomUUID().toString()).arg(1), blpop -> {
+          should.assertTrue(blpop.succeeded());
+          should.assertNull(blpop.result());
+
+          IntStream.range(0, 100).forEach(i -> client.send(cmd(PING), ping -> {
+            should.assertTrue(ping.succeeded());
+            should.assertEquals("PONG", ping.result().toString());
+            if (cnt.decrementAndGet() == 0) {
+              client.close();
+              test.complete();
+            }
+          }));
+        });
+      });
+    });
+  }
+
+  @Test(timeout = 10_000L)
+  public void requestTimeoutTest(TestContext should) {
+    final Async test = should.async();
+
+    final Redis client = Redis.createClient(rule.vertx(), new RedisOptions().setEndpoint("redis://localhost:7006"));
+
+    client
+      .connect(create -> {
+        should.assertTrue(create.succeeded());
+
+        final RedisConnection redis = create.result();
+
+        redis.send(cmd(DEBUG).arg("SLEEP").arg(1).timeout(100), sleep -> {
+          should.assertTrue(sleep.failed());
+          should.assertTrue(sleep.cause().getMessage().startsWith("TIMEOUT"));
+        });
+        // pipelined behind the request that times out
+        redis.send(cmd(PING), ping -> {
+          should.assertTrue(ping.failed());
+          client.close();
+          test.complete();
+        });
+      });
+  }
+
+  @Test(timeout = 10_000L)
+  public void drainHandlerTest(TestContext should) {
+    final Async test = should.async();
+
+    final Redis client = Redis.createClient(rule.vertx(), new RedisOptions()
+      .setEndpoint("redis://localhost:7006")
+      .setMaxWaitingHandlers(1));
+
+    client
+      .connect(create -> {
+        should.assertTrue(create.succeeded());
+
+        final RedisConnection redis = create.result();
+
+        redis.drainHandler(v -> {
+          should.assertFalse(redis.writeQueueFull());
+          client.close();
+          test.complete();
+        });
+
+        redis.send(cmd(PING), ping -> should.assertTrue(ping.succeeded()));
+        should.assertTrue(redis.writeQueueFull());
+        // without a waiting queue timeout a request that does not fit is rejected right away
+        redis.send(cmd(PING), ping -> should.assertTrue(ping.failed()));
+      });
+  }
+
+  @Test(timeout = 10_000L)
+  public void blockingTest(TestContext should) {
+    final Async test = should.async();
+
+    final Redis client = Redis.createClient(rule.vertx(), new RedisOptions().setEndpoint("redis://localhost:7006"));
+    final BlockingRedis redis = BlockingRedis.create(client);
+
+    final String key = UUID.randomUUID().toString();
+
+    // blocking calls are only allowed outside of the event loop
+    new Thread(() -> {
+      should.assertEquals(1L, redis.send(cmd(INCR).arg(key)).toLong());
+      should.assertEquals("2", redis.batch(Arrays.asList(cmd(INCR).arg(key), cmd(GET).arg(key))).get(1).toString());
+      client.close();
+      test.complete();
+    }).start();
   }
+}